@@ -1,14 +1,13 @@
 package com.googlecode.utterlyidle;
 
 import com.googlecode.totallylazy.Sequence;
-import com.googlecode.totallylazy.functions.Callables;
 import com.googlecode.totallylazy.functions.Function1;
 import com.googlecode.totallylazy.predicates.Predicate;
 import com.googlecode.totallylazy.regex.Regex;
 
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.functions.Callables.descending;
-import static com.googlecode.totallylazy.predicates.Predicates.where;
+import static com.googlecode.utterlyidle.HeaderCache.headerCache;
 import static com.googlecode.utterlyidle.HttpHeaders.ACCEPT;
 import static com.googlecode.utterlyidle.MediaRange.convertWildCardsTo;
 import static com.googlecode.utterlyidle.MediaRange.sameValue;
@@ -17,6 +16,8 @@ import static java.lang.Float.valueOf;
 
 public class Accept implements Predicate<String>{
     private static Regex regex = Regex.regex("([^,;\\s]+)(;\\s*q=([0-9\\.]+))?,?");
+    private static final HeaderCache<Accept> cache = headerCache(Accept::parse);
+    private static final Accept ANYTHING = new Accept(sequence(new MediaRange(WILDCARD, 1.0f)));
     private final Sequence<MediaRange> mediaRanges;
 
     public Accept(Sequence<MediaRange> mediaRanges) {
@@ -24,7 +25,8 @@ public class Accept implements Predicate<String>{
     }
 
     public boolean matches(final String value) {
-        return mediaRanges.exists(where(Callables.<String>value(), sameValue(value)));
+        MediaType mediaType = MediaType.mediaType(value);
+        return mediaRanges.exists(mediaRange -> mediaRange.mediaType().matches(mediaType));
     }
 
     public boolean exists(final Sequence<String> values) {
@@ -48,23 +50,31 @@ public class Accept implements Predicate<String>{
     }
 
     private Predicate<? super MediaRange> containedBy(final Sequence<String> values) {
-        return mediaRange -> values.exists(sameValue(mediaRange.value()));
+        return mediaRange -> values.exists(sameValue(mediaRange.mediaType()));
     }
 
 
     public static Accept accept(String header) {
+        return cache.get(header);
+    }
+
+    public static HeaderCache<Accept> cache() {
+        return cache;
+    }
+
+    private static Accept parse(String header) {
         Sequence<MediaRange> mediaRanges = regex.findMatches(header).map(m -> {
             float quality = m.group(3) == null ? 1.0f : valueOf(m.group(3));
             return new MediaRange(m.group(1), quality);
         });
-        return new Accept(mediaRanges);
+        return new Accept(mediaRanges.realise());
     }
 
     public static Accept accept(Request request) {
         if (request.headers().contains(ACCEPT)) {
             return accept(request.headers().getValue(ACCEPT));
         }
-        return new Accept(sequence(new MediaRange(WILDCARD, 1.0f)));
+        return ANYTHING;
     }
 
     public String bestMatch(Sequence<String> possibleContentTypes) {
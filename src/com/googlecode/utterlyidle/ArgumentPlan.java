@@ -0,0 +1,224 @@
+package com.googlecode.utterlyidle;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.functions.Function1;
+import com.googlecode.totallylazy.reflection.TypeFor;
+import com.googlecode.totallylazy.time.Dates;
+import com.googlecode.utterlyidle.cookies.CookieParameters;
+import com.googlecode.utterlyidle.dsl.DefinedParameter;
+import com.googlecode.yadic.Container;
+import com.googlecode.yadic.resolvers.ProgrammerErrorResolver;
+
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.ParametersExtractor.typeArgumentsOf;
+import static com.googlecode.yadic.resolvers.Resolvers.create;
+
+/**
+ * How to produce each argument of a binding, worked out once when the binding is built.
+ *
+ * Named parameters of common types (String, int, long, UUID, Date and Option or Iterable of them) and the
+ * request and its parameters are read straight off the request, so ArgumentScopedModules can not override them.
+ * Anything else still gets resolved by an argument scoped container so modules can keep adding their own types.
+ */
+public class ArgumentPlan {
+    private static final Type ITERABLE_STRING = new TypeFor<Iterable<String>>() {}.get();
+    private static final Converter STRING = value -> value;
+    private final UriTemplate uriTemplate;
+    private final Argument[] arguments;
+
+    private ArgumentPlan(UriTemplate uriTemplate, Sequence<Pair<Type, Option<Parameter>>> typesWithNamedParameter) {
+        this.uriTemplate = uriTemplate;
+        List<Argument> arguments = new ArrayList<Argument>();
+        for (Pair<Type, Option<Parameter>> pair : typesWithNamedParameter) {
+            arguments.add(argument(pair));
+        }
+        this.arguments = arguments.toArray(new Argument[arguments.size()]);
+    }
+
+    public static ArgumentPlan argumentPlan(UriTemplate uriTemplate, Sequence<Pair<Type, Option<Parameter>>> typesWithNamedParameter) {
+        return new ArgumentPlan(uriTemplate, typesWithNamedParameter);
+    }
+
+    public Object[] extract(Request request, Application application) {
+        Sources sources = new Sources(request, uriTemplate, application);
+        Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = arguments[i].resolve(sources);
+        }
+        return values;
+    }
+
+    private Argument argument(Pair<Type, Option<Parameter>> pair) {
+        Type type = pair.first();
+        for (Parameter parameter : pair.second()) {
+            if (parameter instanceof DefinedParameter) {
+                Object value = ((DefinedParameter<?>) parameter).value();
+                return sources -> value;
+            }
+            if (parameter instanceof NamedParameter) {
+                Option<Argument> argument = named((NamedParameter) parameter, type);
+                if (!argument.isEmpty()) return argument.get();
+            }
+            return injected(pair);
+        }
+        return unnamed(type).getOrElse(injected(pair));
+    }
+
+    private Option<Argument> unnamed(Type type) {
+        if (type == Request.class) return some(sources -> sources.request);
+        if (type == Entity.class) return some(sources -> sources.request.entity());
+        if (type == InputStream.class) return some(sources -> sources.request.entity().inputStream());
+        if (type instanceof Class && isParameters((Class<?>) type)) {
+            Class<? extends Parameters<?>> parametersClass = cast(type);
+            return some(sources -> sources.parameters(parametersClass));
+        }
+        return none();
+    }
+
+    private Option<Argument> named(NamedParameter parameter, Type type) {
+        if (!isParameters(parameter.parametersClass())) return none();
+        Option<Converter> converter = converter(type);
+        if (!converter.isEmpty()) {
+            Converter convert = converter.get();
+            return some(sources -> convert.convert(sources.value(parameter)));
+        }
+        if (!(type instanceof ParameterizedType)) return none();
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        Option<Converter> argument = converter(parameterizedType.getActualTypeArguments()[0]);
+        if (argument.isEmpty()) return none();
+        Converter convert = argument.get();
+        if (parameterizedType.getRawType() == Option.class) return some(sources -> {
+            try {
+                return some(convert.convert(sources.value(parameter)));
+            } catch (IllegalArgumentException e) {
+                return none();
+            }
+        });
+        if (parameterizedType.getRawType() == Iterable.class) return some(sources -> {
+            Sequence<String> values = sources.values(parameter);
+            if (convert == STRING) return values;
+            return values.map(convert::convert).realise();
+        });
+        return none();
+    }
+
+    private static Option<Converter> converter(Type type) {
+        if (type == String.class) return some(STRING);
+        if (type == int.class || type == Integer.class) return some(Integer::valueOf);
+        if (type == long.class || type == Long.class) return some(Long::valueOf);
+        if (type == UUID.class) return some(UUID::fromString);
+        if (type == Date.class) return some(Dates::parse);
+        return none();
+    }
+
+    private static boolean isParameters(Class<?> aClass) {
+        return aClass == PathParameters.class ||
+                aClass == QueryParameters.class ||
+                aClass == FormParameters.class ||
+                aClass == HeaderParameters.class ||
+                aClass == CookieParameters.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private Argument injected(final Pair<Type, Option<Parameter>> pair) {
+        return sources -> sources.application.usingArgumentScope(sources.request, resolveParameter(pair));
+    }
+
+    private Function1<Container, Object> resolveParameter(final Pair<Type, Option<Parameter>> pair) {
+        return container -> {
+            final Type type = pair.first();
+            final Option<Parameter> optionalParameter = pair.second();
+
+            container.addInstance(UriTemplate.class, uriTemplate);
+
+            for (Parameter parameter : optionalParameter) {
+                parameter.addTo(container);
+            }
+
+            if (!container.contains(String.class)) {
+                container.addType(String.class, new ProgrammerErrorResolver(String.class));
+            }
+
+            if (!container.contains(ITERABLE_STRING)) {
+                container.addType(ITERABLE_STRING, new ProgrammerErrorResolver(ITERABLE_STRING));
+            }
+
+            for (Type t : typeArgumentsOf(type)) {
+                if (!container.contains(t)) {
+                    container.addType(t, create(t, container));
+                }
+            }
+
+            return container.resolve(type);
+        };
+    }
+
+    private interface Argument {
+        Object resolve(Sources sources);
+    }
+
+    private interface Converter {
+        Object convert(String value);
+    }
+
+    /**
+     * The request and the parameters parsed from it, each parsed at most once per extraction.
+     */
+    private static class Sources {
+        private final Request request;
+        private final UriTemplate uriTemplate;
+        private final Application application;
+        private PathParameters path;
+        private QueryParameters query;
+        private FormParameters form;
+        private CookieParameters cookies;
+
+        private Sources(Request request, UriTemplate uriTemplate, Application application) {
+            this.request = request;
+            this.uriTemplate = uriTemplate;
+            this.application = application;
+        }
+
+        private Parameters<?> parameters(Class<? extends Parameters<?>> parametersClass) {
+            if (parametersClass == HeaderParameters.class) return request.headers();
+            if (parametersClass == QueryParameters.class) return query == null ? query = request.query() : query;
+            if (parametersClass == FormParameters.class) return form == null ? form = request.form() : form;
+            if (parametersClass == CookieParameters.class) return cookies == null ? cookies = request.cookies() : cookies;
+            if (parametersClass == PathParameters.class) return path == null ? path = uriTemplate.extract(request.uri().path()) : path;
+            throw new UnsupportedOperationException("Does not support " + parametersClass);
+        }
+
+        private String value(NamedParameter parameter) {
+            Parameters<?> parameters = parameters(parameter.parametersClass());
+            if (!parameters.contains(parameter.name())) return defaultValueOrThrow(parameter);
+            return parameters.getValue(parameter.name());
+        }
+
+        private Sequence<String> values(NamedParameter parameter) {
+            Parameters<?> parameters = parameters(parameter.parametersClass());
+            if (!parameters.contains(parameter.name())) return sequence(defaultValueOrThrow(parameter));
+            return parameters.getValues(parameter.name());
+        }
+
+        private static String defaultValueOrThrow(NamedParameter parameter) {
+            if (parameter.defaultValue().isEmpty()) throw new IllegalArgumentException();
+            return parameter.defaultValue().get();
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.googlecode.utterlyidle;
 
 import com.googlecode.totallylazy.Either;
+import com.googlecode.totallylazy.Option;
 import com.googlecode.totallylazy.functions.Function1;
 import com.googlecode.utterlyidle.bindings.BindingMatcher;
+import com.googlecode.utterlyidle.bindings.ExtractedArguments;
 import com.googlecode.utterlyidle.bindings.MatchedBinding;
 import com.googlecode.yadic.Container;
 
+import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.utterlyidle.Accept.accept;
+import static com.googlecode.utterlyidle.HeaderCache.headerCache;
 import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
 import static com.googlecode.utterlyidle.MediaType.TEXT_HTML;
 import static com.googlecode.utterlyidle.Response.ok;
@@ -15,6 +19,7 @@ import static com.googlecode.utterlyidle.Status.NO_CONTENT;
 import static com.googlecode.utterlyidle.bindings.MatchedBinding.constructors.matchedBinding;
 
 public class BaseHandler implements HttpHandler {
+    private static final HeaderCache<String> contentTypes = headerCache(BaseHandler::defaultIfCharsetNotSpecified);
     private final Container container;
     private final BindingMatcher bindingMatcher;
 
@@ -29,11 +34,18 @@ public class BaseHandler implements HttpHandler {
     }
 
     private Response getResponse(final Request request) throws Exception {
+        for (Binding binding : matched(request)) return success(request, binding);
         Either<MatchFailure, Binding> bestMatch = bindingMatcher.match(request);
         return bestMatch.map(failure(), success(request));
     }
 
-    private Response success(final Request request, final Binding binding) throws Exception {
+    private Option<Binding> matched(Request request) {
+        if (!container.contains(ExtractedArguments.class)) return none();
+        return container.get(ExtractedArguments.class).binding(request);
+    }
+
+    private Response success(final Request original, final Binding binding) throws Exception {
+        Request request = limit(original, binding);
         if (container.contains(MatchedBinding.class)) {
             container.remove(MatchedBinding.class);
         }
@@ -44,6 +56,15 @@ public class BaseHandler implements HttpHandler {
                                 convertNullToNoContent(binding.invoke(container)))));
     }
 
+    private Request limit(Request request, Binding binding) throws EntityTooLargeException {
+        for (Long maxEntitySize : binding.maxEntitySize()) {
+            Request limited = EntitySizeLimit.limit(request, maxEntitySize);
+            if (limited != request) setupContainer(limited);
+            return limited;
+        }
+        return request;
+    }
+
     private Object convertNullToNoContent(final Object instance) {
         if (instance == null) return response(NO_CONTENT);
         return instance;
@@ -62,12 +83,16 @@ public class BaseHandler implements HttpHandler {
 
     private Response setContentType(String mimeType, Response response) {
         if (response.header(CONTENT_TYPE).isEmpty()) {
-            return response.contentType(defaultIfCharsetNotSpecified(mimeType));
+            return response.contentType(contentTypes.get(mimeType));
         }
         return response;
     }
 
-    private String defaultIfCharsetNotSpecified(String mimeType) {
+    public static HeaderCache<String> contentTypes() {
+        return contentTypes;
+    }
+
+    private static String defaultIfCharsetNotSpecified(String mimeType) {
         if (!mimeType.contains("charset")) {
             return mimeType + "; charset=\"" + Entity.DEFAULT_CHARACTER_SET + "\"";
         }
@@ -28,6 +28,10 @@ public class Binding  {
     private final int priority;
     private final boolean hidden;
     private final View view;
+    private final Option<Long> maxEntitySize;
+    private final Option<Class<? extends Validator>> validator;
+    private final ArgumentPlan argumentPlan;
+    private final int numberOfDefaultArguments;
 
     public Binding(Action action,
                    UriTemplate uriTemplate,
@@ -38,6 +42,33 @@ public class Binding  {
                    int priority,
                    boolean hidden,
                    final View view) {
+        this(action, uriTemplate, httpMethod, consumes, produces, parameters, priority, hidden, view, Option.<Long>none());
+    }
+
+    public Binding(Action action,
+                   UriTemplate uriTemplate,
+                   String httpMethod,
+                   Sequence<String> consumes,
+                   Sequence<String> produces,
+                   Sequence<Pair<Type, Option<Parameter>>> parameters,
+                   int priority,
+                   boolean hidden,
+                   final View view,
+                   final Option<Long> maxEntitySize) {
+        this(action, uriTemplate, httpMethod, consumes, produces, parameters, priority, hidden, view, maxEntitySize, Option.<Class<? extends Validator>>none());
+    }
+
+    public Binding(Action action,
+                   UriTemplate uriTemplate,
+                   String httpMethod,
+                   Sequence<String> consumes,
+                   Sequence<String> produces,
+                   Sequence<Pair<Type, Option<Parameter>>> parameters,
+                   int priority,
+                   boolean hidden,
+                   final View view,
+                   final Option<Long> maxEntitySize,
+                   final Option<Class<? extends Validator>> validator) {
         this.action = action;
         this.uriTemplate = uriTemplate;
         this.httpMethod = httpMethod;
@@ -47,6 +78,10 @@ public class Binding  {
         this.parameters = parameters.realise();
         this.priority = priority;
         this.hidden = hidden;
+        this.maxEntitySize = maxEntitySize;
+        this.validator = validator;
+        this.argumentPlan = ArgumentPlan.argumentPlan(uriTemplate, this.parameters);
+        this.numberOfDefaultArguments = namedParameters().flatMap(defaultValue()).size();
     }
 
     public Object invoke(Container container) throws Exception {
@@ -82,12 +117,16 @@ public class Binding  {
                 safeCast(NamedParameter.class);
     }
 
+    public ArgumentPlan argumentPlan() {
+        return argumentPlan;
+    }
+
     public int numberOfArguments() {
         return parameters.size();
     }
 
-    private int numberOfDefaultArguments() {
-        return namedParameters().flatMap(defaultValue()).size();
+    public int numberOfDefaultArguments() {
+        return numberOfDefaultArguments;
     }
 
     public int priority() {
@@ -98,6 +137,17 @@ public class Binding  {
         return hidden;
     }
 
+    /**
+     * A limit on the request entity for this binding on top of the application wide one; it can only lower it.
+     */
+    public Option<Long> maxEntitySize() {
+        return maxEntitySize;
+    }
+
+    public Option<Class<? extends Validator>> validator() {
+        return validator;
+    }
+
     @Override
     public int hashCode() {
         return myFields().hashCode();
@@ -0,0 +1,40 @@
+package com.googlecode.utterlyidle;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.IOException;
+
+/**
+ * Part of a byte array used as an entity without copying it.
+ */
+public class ByteSlice implements KnownLength {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    private ByteSlice(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length)
+            throw new IllegalArgumentException(String.format("%s bytes from %s is outside an array of %s", length, offset, bytes.length));
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static ByteSlice byteSlice(byte[] bytes, int offset, int length) {
+        return new ByteSlice(bytes, offset, length);
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    public void write(OutputStream outputStream) throws IOException {
+        outputStream.write(bytes, offset, length);
+    }
+
+    public InputStream inputStream() {
+        return new ByteArrayInputStream(bytes, offset, length);
+    }
+}
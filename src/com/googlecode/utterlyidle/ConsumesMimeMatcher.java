@@ -1,7 +1,6 @@
 package com.googlecode.utterlyidle;
 
 import com.googlecode.totallylazy.Sequence;
-import com.googlecode.totallylazy.predicates.LogicalPredicate;
 import com.googlecode.totallylazy.predicates.Predicate;
 
 public class ConsumesMimeMatcher implements Predicate<Request> {
@@ -13,12 +12,11 @@ public class ConsumesMimeMatcher implements Predicate<Request> {
 
     public boolean matches(final Request request) {
         if (mimeTypes.contains(MediaType.WILDCARD)) return true;
-        return request.headers().valueOption(HttpHeaders.CONTENT_TYPE).exists(new LogicalPredicate<String>() {
-            @Override
-            public boolean matches(final String type) {
-                return mimeTypes.exists(mimeType -> type.startsWith(mimeType));
-            }
-        });
+        for (String contentType : request.headers().valueOption(HttpHeaders.CONTENT_TYPE)) {
+            MediaType type = MediaType.mediaType(contentType);
+            return mimeTypes.exists(mimeType -> MediaType.mediaType(mimeType).includes(type));
+        }
+        return false;
     }
 
     public static Predicate<Binding> contentMatches(final Request request) {
@@ -5,9 +5,14 @@ import com.googlecode.totallylazy.Streams;
 import com.googlecode.totallylazy.functions.Block;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
 
 import static com.googlecode.totallylazy.Strings.bytes;
 import static com.googlecode.totallylazy.predicates.Predicates.instanceOf;
@@ -21,6 +26,9 @@ public class Entities {
         WRITERS.add(instanceOf(InputStream.class), inputStreamEntityWriter());
         WRITERS.add(instanceOf(StreamingWriter.class), streamingWriterEntityWriter());
         WRITERS.add(instanceOf(StreamingOutput.class), streamingOutputEntityWriter());
+        WRITERS.add(instanceOf(ByteSlice.class), byteSliceEntityWriter());
+        WRITERS.add(instanceOf(ByteBuffer.class), byteBufferEntityWriter());
+        WRITERS.add(instanceOf(File.class), fileEntityWriter());
     }
 
     public static Block<OutputStream> writerFor(Object value) {
@@ -39,6 +47,54 @@ public class Entities {
         return (entity, outputStream) -> outputStream.write(entity);
     }
 
+    private static EntityWriter<ByteSlice> byteSliceEntityWriter() {
+        return (entity, outputStream) -> entity.write(outputStream);
+    }
+
+    private static EntityWriter<ByteBuffer> byteBufferEntityWriter() {
+        return (entity, outputStream) -> write(entity, outputStream);
+    }
+
+    private static EntityWriter<File> fileEntityWriter() {
+        return (entity, outputStream) -> Files.copy(entity.toPath(), outputStream);
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer without moving its position, so the entity can be written again.
+     */
+    public static void write(ByteBuffer buffer, OutputStream outputStream) throws IOException {
+        if (buffer.hasArray()) {
+            outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            return;
+        }
+        Channels.newChannel(outputStream).write(buffer.duplicate());
+    }
+
+    public static InputStream inputStreamOf(final ByteBuffer buffer) {
+        if (buffer.hasArray()) return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return inputStreamOf(bytes);
+    }
+
+    /**
+     * The number of bytes the default character set will encode the value as, without encoding it.
+     */
+    public static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) length += 1;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) length += 1;
+            else length += 3;
+        }
+        return length;
+    }
+
     private static EntityWriter<InputStream> inputStreamEntityWriter() {
         return (input, output) -> {
             try {
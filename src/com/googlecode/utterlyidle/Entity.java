@@ -9,21 +9,26 @@ import com.googlecode.totallylazy.functions.Lazy;
 
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.totallylazy.Option.some;
 import static com.googlecode.totallylazy.Strings.string;
 import static com.googlecode.utterlyidle.Entities.inputStreamOf;
+import static com.googlecode.utterlyidle.Entities.utf8Length;
 
 public class Entity implements Value<Object>, Closeable {
     public static final Charset DEFAULT_CHARACTER_SET = Characters.UTF8;
     private static final Entity EMPTY = entity("");
     private Object value;
     private Block<OutputStream> writer;
+    private boolean transferable = true;
 
     private Entity(Object value, Block<OutputStream> writer) {
         this.value = value;
@@ -56,6 +61,7 @@ public class Entity implements Value<Object>, Closeable {
         byte[] bytes = outputStream.toByteArray();
         value = bytes;
         writer = Entities.writerFor(value);
+        transferable = true;
         return bytes;
     }
 
@@ -69,9 +75,17 @@ public class Entity implements Value<Object>, Closeable {
 
     public Entity writer(Block<OutputStream> writer){
         this.writer = writer;
+        this.transferable = false;
         return this;
     }
 
+    /**
+     * Whether writing the entity still just writes its value, so the value can be sent or measured directly.
+     */
+    public boolean isTransferable() {
+        return transferable;
+    }
+
 
     private final Lazy<InputStream> inputStream = new Lazy<InputStream>() {
         @Override
@@ -79,17 +93,34 @@ public class Entity implements Value<Object>, Closeable {
             if (value instanceof byte[]) return inputStreamOf((byte[]) value);
             if (value instanceof InputStream) return (InputStream) value;
             if (value instanceof String) return inputStreamOf((String) value);
+            if (value instanceof ByteSlice) return ((ByteSlice) value).inputStream();
+            if (value instanceof ByteBuffer) return inputStreamOf((ByteBuffer) value);
+            if (value instanceof File) return new FileInputStream((File) value);
             throw new UnsupportedOperationException("Unsupported entity type: " + value.getClass());
         }
     };
 
     public InputStream inputStream() { return inputStream.apply(); }
 
+    /**
+     * Worked out from the value where possible so strings, byte arrays and KnownLength values are not written just
+     * to be measured. Once the writer has been replaced the value says nothing about the output, so it is measured.
+     */
     public Option<Integer> length() {
+        if (!transferable) return isStreaming() ? none(Integer.class) : some(toBytes().length);
+        if (value instanceof byte[]) return some(((byte[]) value).length);
+        if (value instanceof String) return some(utf8Length((String) value));
+        if (value instanceof KnownLength) return lengthOf(((KnownLength) value).length());
+        if (value instanceof ByteBuffer) return some(((ByteBuffer) value).remaining());
+        if (value instanceof File) return lengthOf(((File) value).length());
         if(isStreaming()) return none();
         return some(toBytes().length);
     }
 
+    private static Option<Integer> lengthOf(long length) {
+        return length > Integer.MAX_VALUE ? none(Integer.class) : some((int) length);
+    }
+
     @Override
     public void close() throws IOException {
         Closeables.safeClose(value);
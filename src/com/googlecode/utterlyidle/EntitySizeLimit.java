@@ -0,0 +1,74 @@
+package com.googlecode.utterlyidle;
+
+import java.io.InputStream;
+
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LENGTH;
+import static com.googlecode.utterlyidle.LimitedInputStream.limitedInputStream;
+import static java.lang.Long.parseLong;
+import static java.lang.String.valueOf;
+
+public class EntitySizeLimit {
+    public static final String MAX_ENTITY_SIZE = "max.entity.size";
+    public static final long NO_LIMIT = -1;
+
+    private final long maxEntitySize;
+
+    public EntitySizeLimit(long maxEntitySize) {
+        this.maxEntitySize = maxEntitySize;
+    }
+
+    public EntitySizeLimit(UtterlyIdleProperties properties) {
+        this(parseLong(properties.getProperty(MAX_ENTITY_SIZE, valueOf(NO_LIMIT))));
+    }
+
+    public static EntitySizeLimit entitySizeLimit(long maxEntitySize) {
+        return new EntitySizeLimit(maxEntitySize);
+    }
+
+    public static EntitySizeLimit noLimit() {
+        return new EntitySizeLimit(NO_LIMIT);
+    }
+
+    /**
+     * The most bytes a request entity may have, or a negative number for no limit.
+     */
+    public long maxEntitySize() {
+        return maxEntitySize;
+    }
+
+    public Request limit(Request request) throws EntityTooLargeException {
+        return limit(request, maxEntitySize);
+    }
+
+    /**
+     * Fails straight away when the declared or known length is over the limit, otherwise counts a streamed entity as
+     * it is read. A stream that is already limited keeps the lower of the two limits.
+     */
+    public static Request limit(Request request, long maxEntitySize) throws EntityTooLargeException {
+        Object value = request.entity().value();
+        if (value instanceof InputStream) {
+            LimitedInputStream limited = limitedInputStream((InputStream) value, maxEntitySize);
+            checkLength(declaredLength(request), limited.limit());
+            return limited == value ? request : request.entity(limited);
+        }
+        if (maxEntitySize >= 0 && !request.entity().isStreaming()) {
+            for (Integer length : request.entity().length()) checkLength(length, maxEntitySize);
+        }
+        return request;
+    }
+
+    private static long declaredLength(Request request) {
+        for (String length : request.header(CONTENT_LENGTH)) {
+            try {
+                return parseLong(length.trim());
+            } catch (NumberFormatException e) {
+                return NO_LIMIT;
+            }
+        }
+        return NO_LIMIT;
+    }
+
+    private static void checkLength(long length, long maxEntitySize) throws EntityTooLargeException {
+        if (maxEntitySize >= 0 && length > maxEntitySize) throw new EntityTooLargeException(maxEntitySize);
+    }
+}
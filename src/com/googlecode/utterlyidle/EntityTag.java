@@ -0,0 +1,111 @@
+package com.googlecode.utterlyidle;
+
+import com.googlecode.totallylazy.Option;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+
+/**
+ * An ETag value, strong or weak (W/"..."), as sent in ETag and If-None-Match headers.
+ */
+public class EntityTag {
+    public static final String ANY = "*";
+    private static final String WEAK = "W/";
+    private final String opaque;
+    private final boolean weak;
+
+    private EntityTag(String opaque, boolean weak) {
+        this.opaque = opaque;
+        this.weak = weak;
+    }
+
+    public static EntityTag strong(String opaque) {
+        return new EntityTag(opaque, false);
+    }
+
+    public static EntityTag weak(String opaque) {
+        return new EntityTag(opaque, true);
+    }
+
+    public static Option<EntityTag> entityTag(String value) {
+        List<EntityTag> tags = entityTags(value);
+        return tags.size() == 1 ? some(tags.get(0)) : none(EntityTag.class);
+    }
+
+    /**
+     * The tags in a comma separated list; unquoted values are accepted as they are and * is left out.
+     */
+    public static List<EntityTag> entityTags(String value) {
+        List<EntityTag> tags = new ArrayList<EntityTag>();
+        int index = 0;
+        while (index < value.length()) {
+            char c = value.charAt(index);
+            if (c == ',' || Character.isWhitespace(c)) {
+                index++;
+                continue;
+            }
+            boolean weak = value.startsWith(WEAK, index);
+            if (weak) index += WEAK.length();
+            if (index < value.length() && value.charAt(index) == '"') {
+                int end = value.indexOf('"', index + 1);
+                if (end < 0) end = value.length();
+                tags.add(new EntityTag(value.substring(index + 1, end), weak));
+                index = end + 1;
+                continue;
+            }
+            int end = value.indexOf(',', index);
+            if (end < 0) end = value.length();
+            String token = value.substring(index, end).trim();
+            if (!token.isEmpty() && !token.equals(ANY)) tags.add(new EntityTag(token, weak));
+            index = end;
+        }
+        return tags;
+    }
+
+    /**
+     * Whether any of the If-None-Match values names this tag, using the weak comparison RFC 7232 asks for.
+     */
+    public boolean noneMatch(Iterable<String> ifNoneMatch) {
+        for (String value : ifNoneMatch) {
+            if (value.trim().equals(ANY)) return false;
+            for (EntityTag tag : entityTags(value)) {
+                if (weakMatches(tag)) return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean weakMatches(EntityTag other) {
+        return opaque.equals(other.opaque);
+    }
+
+    public boolean strongMatches(EntityTag other) {
+        return !weak && !other.weak && opaque.equals(other.opaque);
+    }
+
+    public String opaque() {
+        return opaque;
+    }
+
+    public boolean isWeak() {
+        return weak;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof EntityTag && ((EntityTag) other).weak == weak && ((EntityTag) other).opaque.equals(opaque);
+    }
+
+    @Override
+    public int hashCode() {
+        return opaque.hashCode() * 31 + (weak ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return (weak ? WEAK : "") + '"' + opaque + '"';
+    }
+}
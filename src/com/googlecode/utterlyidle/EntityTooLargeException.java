@@ -0,0 +1,25 @@
+package com.googlecode.utterlyidle;
+
+import java.io.IOException;
+
+import static java.lang.String.format;
+
+public class EntityTooLargeException extends IOException {
+    private final long limit;
+
+    public EntityTooLargeException(long limit) {
+        super(format("Request entity is larger than %s bytes", limit));
+        this.limit = limit;
+    }
+
+    public long limit() {
+        return limit;
+    }
+
+    public static boolean isCause(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof EntityTooLargeException) return true;
+        }
+        return false;
+    }
+}
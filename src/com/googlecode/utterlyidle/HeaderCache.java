@@ -0,0 +1,73 @@
+package com.googlecode.utterlyidle;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of header values parsed from their raw text.
+ *
+ * Clients only ever send a handful of distinct Accept and Content-Type values, so parsing each one once is enough.
+ * Parsed values must be immutable as they are shared between requests.
+ */
+public class HeaderCache<T> {
+    public static final int DEFAULT_SIZE = 256;
+    private final ConcurrentMap<String, T> values = new ConcurrentHashMap<String, T>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Function<String, T> parser;
+    private final int maximumSize;
+
+    private HeaderCache(Function<String, T> parser, int maximumSize) {
+        this.parser = parser;
+        this.maximumSize = maximumSize;
+    }
+
+    public static <T> HeaderCache<T> headerCache(Function<String, T> parser) {
+        return headerCache(parser, DEFAULT_SIZE);
+    }
+
+    public static <T> HeaderCache<T> headerCache(Function<String, T> parser, int maximumSize) {
+        return new HeaderCache<T>(parser, maximumSize);
+    }
+
+    public T get(String raw) {
+        T value = values.get(raw);
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        misses.incrementAndGet();
+        value = parser.apply(raw);
+        evictIfFull();
+        T existing = values.putIfAbsent(raw, value);
+        return existing == null ? value : existing;
+    }
+
+    private void evictIfFull() {
+        Iterator<String> keys = values.keySet().iterator();
+        while (values.size() >= maximumSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s entries, %s hits, %s misses", size(), hits(), misses());
+    }
+}
@@ -1,17 +1,28 @@
 package com.googlecode.utterlyidle;
 
+import com.googlecode.totallylazy.Option;
 import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.Strings;
 import com.googlecode.totallylazy.collections.PersistentList;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.option;
 import static com.googlecode.totallylazy.Pair.functions.pairToString;
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.Strings.equalIgnoringCase;
 import static com.googlecode.utterlyidle.Rfc2616.HTTP_LINE_SEPARATOR;
 
 public class HeaderParameters extends Parameters<HeaderParameters> {
+    private volatile Map<String, List<String>> index;
+
     public HeaderParameters() {
         this(PersistentList.constructors.<Pair<String, String>>empty());
     }
@@ -57,6 +68,57 @@ public class HeaderParameters extends Parameters<HeaderParameters> {
         return super.add(name, value);
     }
 
+    @Override
+    public HeaderParameters remove(String name) {
+        if (!contains(name)) return this;
+        return super.remove(name);
+    }
+
+    @Override
+    public Option<String> valueOption(String key) {
+        List<String> found = lookup(key);
+        return found == null ? none(String.class) : option(found.get(0));
+    }
+
+    @Override
+    public Sequence<String> getValues(String key) {
+        List<String> found = lookup(key);
+        return found == null ? Sequences.<String>empty() : sequence(found);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return lookup(key) != null;
+    }
+
+    private List<String> lookup(String key) {
+        if (key == null) return null;
+        return index().get(fold(key));
+    }
+
+    /**
+     * Values by lower cased name in the order they were added, built the first time a header is looked up.
+     */
+    private Map<String, List<String>> index() {
+        Map<String, List<String>> result = index;
+        if (result == null) {
+            result = new HashMap<String, List<String>>();
+            for (Pair<String, String> pair : values) {
+                if (pair.first() == null) continue;
+                String key = fold(pair.first());
+                List<String> found = result.get(key);
+                if (found == null) result.put(key, found = new ArrayList<String>(1));
+                found.add(pair.second());
+            }
+            index = result;
+        }
+        return result;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
     @Override
     public String toString() {
         if (size() == 0) return Strings.EMPTY;
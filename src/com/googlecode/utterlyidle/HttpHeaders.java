@@ -5,8 +5,10 @@ public class HttpHeaders {
     public static final String ACCEPT_CHARSET = "Accept-Charset";
     public static final String ACCEPT_ENCODING = "Accept-Encoding";
     public static final String ACCEPT_LANGUAGE = "Accept-Language";
+    public static final String AGE = "Age";
     public static final String AUTHORIZATION = "Authorization";
     public static final String CACHE_CONTROL = "Cache-Control";
+    public static final String CONTENT_DISPOSITION = "Content-Disposition";
     public static final String CONTENT_ENCODING = "Content-Encoding";
     public static final String CONTENT_LANGUAGE = "Content-Language";
     public static final String CONTENT_LENGTH = "Content-Length";
@@ -8,6 +8,8 @@ import com.googlecode.totallylazy.functions.Unary;
 import com.googlecode.utterlyidle.cookies.Cookie;
 import com.googlecode.utterlyidle.cookies.CookieParameters;
 
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.one;
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.Unchecked.cast;
 import static com.googlecode.totallylazy.functions.Functions.compose;
@@ -27,7 +29,15 @@ public interface HttpMessage<T extends HttpMessage<T>> {
     }
 
     default T header(String name, Object value) {
-        return modify(cast(this), Builder.<T>header(replace(name, value)));
+        return replaceHeaders(one(pair(name, value)));
+    }
+
+    /**
+     * Sets several headers with a single copy of the header list and a single new message; a null value removes
+     * the header.
+     */
+    default T replaceHeaders(Iterable<? extends Pair<String, ?>> replacements) {
+        return create(headers().replace(replacements), entity());
     }
 
     HeaderParameters headers();
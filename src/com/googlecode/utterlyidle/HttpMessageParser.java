@@ -1,21 +1,33 @@
 package com.googlecode.utterlyidle;
 
+import com.googlecode.totallylazy.Option;
 import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.Strings;
 import com.googlecode.totallylazy.functions.Function2;
 
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.googlecode.totallylazy.LazyException.lazyException;
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
 import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.regex.Regex.regex;
+import static com.googlecode.totallylazy.io.Uri.uri;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LENGTH;
 import static com.googlecode.utterlyidle.HttpMessage.Builder.entity;
 import static com.googlecode.utterlyidle.Response.response;
 import static com.googlecode.utterlyidle.Status.status;
@@ -42,6 +54,43 @@ public class HttpMessageParser {
         return buildResponse(statusAndHeaders.first().trim(), trim(statusAndHeaders.tail()), body);
     }
 
+    /**
+     * Reads the start line and headers and leaves the rest of the stream as the entity, so the body is never held
+     * in memory. When there is a Content-Length the entity stops there and knows its length.
+     */
+    public static Request parseRequest(InputStream requestMessage) {
+        InputStream inputStream = buffered(requestMessage);
+        Head head = Head.read(inputStream);
+        String[] methodAndPath = head.methodAndPath();
+        return Request.request(methodAndPath[0], uri(methodAndPath[1]), head.headers, Entity.entity(head.body(inputStream)));
+    }
+
+    public static Response parseResponse(InputStream responseMessage) {
+        InputStream inputStream = buffered(responseMessage);
+        Head head = Head.read(inputStream);
+        return response(head.status(), head.headers, Entity.entity(head.body(inputStream)));
+    }
+
+    /**
+     * Parses from the buffer's position without moving it. The entity is a slice of the buffer so the body is not copied.
+     */
+    public static Request parseRequest(ByteBuffer requestMessage) {
+        ByteBuffer buffer = requestMessage.duplicate();
+        Head head = Head.read(buffer);
+        String[] methodAndPath = head.methodAndPath();
+        return Request.request(methodAndPath[0], uri(methodAndPath[1]), head.headers, Entity.entity(head.body(buffer)));
+    }
+
+    public static Response parseResponse(ByteBuffer responseMessage) {
+        ByteBuffer buffer = responseMessage.duplicate();
+        Head head = Head.read(buffer);
+        return response(head.status(), head.headers, Entity.entity(head.body(buffer)));
+    }
+
+    private static InputStream buffered(InputStream inputStream) {
+        return inputStream instanceof BufferedInputStream ? inputStream : new BufferedInputStream(inputStream);
+    }
+
     private static Request buildRequest(String requestLine, Sequence<String> headerLines, Sequence<String> messageBodyLines) {
         return Request.request(toMethod(requestLine), toPath(requestLine),
                 HttpMessage.Builder.header(headerLines.map(HttpMessageParser::toFieldNameAndValue)),
@@ -132,4 +181,181 @@ public class HttpMessageParser {
     private static Sequence<String> trim(Sequence<String> linesToTrim) {
         return linesToTrim.map(String::trim);
     }
+
+    private interface ByteSource {
+        int read() throws IOException;
+    }
+
+    private static class Head {
+        private final String startLine;
+        private final HeaderParameters headers;
+
+        private Head(String startLine, HeaderParameters headers) {
+            this.startLine = startLine;
+            this.headers = headers;
+        }
+
+        private static Head read(InputStream inputStream) {
+            return read(inputStream::read);
+        }
+
+        private static Head read(ByteBuffer buffer) {
+            return read(() -> buffer.hasRemaining() ? buffer.get() & 0xFF : -1);
+        }
+
+        private static Head read(ByteSource source) {
+            try {
+                Line line = new Line();
+                if (!line.read(source)) throw new IllegalArgumentException("Http Message without a start line");
+                String startLine = line.trimmed();
+                HeaderParameters headers = new HeaderParameters();
+                while (line.read(source) && line.length > 0) {
+                    headers = line.header(headers);
+                }
+                return new Head(startLine, headers);
+            } catch (IOException e) {
+                throw lazyException(e);
+            }
+        }
+
+        private String[] methodAndPath() {
+            int methodEnd = startLine.indexOf(' ');
+            if (methodEnd <= 0 || !alphabetic(startLine, methodEnd))
+                throw new IllegalArgumentException("Request without a valid method");
+            int pathEnd = startLine.lastIndexOf(' ');
+            String path = pathEnd > methodEnd ? startLine.substring(methodEnd, pathEnd).trim() : "";
+            if (path.isEmpty()) throw new IllegalArgumentException("Request without a path");
+            return new String[]{startLine.substring(0, methodEnd).toUpperCase(), path};
+        }
+
+        private Status status() {
+            int start = startLine.startsWith("HTTP/") ? startLine.indexOf(' ') + 1 : 0;
+            while (start > 0 && start < startLine.length() && startLine.charAt(start) == ' ') start++;
+            if (start < 0 || start + 3 > startLine.length() || !digits(startLine, start, start + 3))
+                throw new IllegalArgumentException("Response without a status code");
+            int code = (startLine.charAt(start) - '0') * 100 + (startLine.charAt(start + 1) - '0') * 10 + (startLine.charAt(start + 2) - '0');
+            return Status.status(code, startLine.substring(start + 3).trim());
+        }
+
+        private Object body(InputStream inputStream) {
+            for (long contentLength : contentLength()) {
+                return KnownLengthInputStream.knownLength(new Bounded(inputStream, contentLength), contentLength);
+            }
+            return inputStream;
+        }
+
+        private Object body(ByteBuffer buffer) {
+            for (long contentLength : contentLength()) {
+                if (contentLength > buffer.remaining()) throw new IllegalArgumentException("Content-Length longer than the body");
+                buffer.limit(buffer.position() + (int) contentLength);
+            }
+            return buffer.hasRemaining() ? buffer.slice() : "";
+        }
+
+        private Option<Long> contentLength() {
+            for (String value : headers.valueOption(CONTENT_LENGTH)) {
+                String length = value.trim();
+                if (length.isEmpty() || length.length() > 18 || !digits(length, 0, length.length()))
+                    throw new IllegalArgumentException("Invalid Content-Length");
+                return some(Long.parseLong(length));
+            }
+            return none();
+        }
+
+        private static boolean alphabetic(String value, int end) {
+            for (int i = 0; i < end; i++) {
+                char c = value.charAt(i);
+                if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) return false;
+            }
+            return true;
+        }
+
+        private static boolean digits(String value, int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One line of the head with its line ending removed; the bytes are reused for every line.
+     */
+    private static class Line {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        private boolean read(ByteSource source) throws IOException {
+            length = 0;
+            int read = source.read();
+            if (read == -1) return false;
+            while (read != -1 && read != '\n') {
+                if (length == bytes.length) bytes = Arrays.copyOf(bytes, length * 2);
+                bytes[length++] = (byte) read;
+                read = source.read();
+            }
+            if (length > 0 && bytes[length - 1] == '\r') length--;
+            return true;
+        }
+
+        private String trimmed() {
+            return string(0, length);
+        }
+
+        private HeaderParameters header(HeaderParameters headers) {
+            int colon = 0;
+            while (colon < length && bytes[colon] != ':') colon++;
+            if (colon == length) return headers.add(string(0, length), "");
+            return headers.add(string(0, colon), string(colon + 1, length));
+        }
+
+        private String string(int start, int end) {
+            while (start < end && (bytes[start] & 0xFF) <= ' ') start++;
+            while (end > start && (bytes[end - 1] & 0xFF) <= ' ') end--;
+            return new String(bytes, start, end - start, Entity.DEFAULT_CHARACTER_SET);
+        }
+    }
+
+    private static class Bounded extends FilterInputStream {
+        private long remaining;
+
+        private Bounded(InputStream inputStream, long remaining) {
+            super(inputStream);
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int read = super.read();
+            if (read != -1) remaining--;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) return -1;
+            int read = super.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read != -1) remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(Math.min(count, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package com.googlecode.utterlyidle;
+
+/**
+ * An entity value that knows how many bytes it will write without having to be written first.
+ */
+public interface KnownLength {
+    long length();
+}
@@ -0,0 +1,27 @@
+package com.googlecode.utterlyidle;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
+/**
+ * A stream that declares how many bytes it holds, so it can be sent with a Content-Length instead of chunked.
+ * It can still only be read once.
+ */
+public class KnownLengthInputStream extends FilterInputStream implements KnownLength {
+    private final long length;
+
+    private KnownLengthInputStream(InputStream inputStream, long length) {
+        super(inputStream);
+        if (length < 0) throw new IllegalArgumentException("length can not be negative");
+        this.length = length;
+    }
+
+    public static KnownLengthInputStream knownLength(InputStream inputStream, long length) {
+        return new KnownLengthInputStream(inputStream, length);
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+}
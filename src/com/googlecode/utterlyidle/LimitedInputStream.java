@@ -0,0 +1,78 @@
+package com.googlecode.utterlyidle;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read through it and fails with EntityTooLargeException once more than the limit has been read, so
+ * an oversized body is rejected before it is all buffered. A negative limit only counts.
+ */
+public class LimitedInputStream extends FilterInputStream {
+    private long limit;
+    private long count;
+
+    private LimitedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    public static LimitedInputStream limitedInputStream(InputStream in, long limit) {
+        if (in instanceof LimitedInputStream) return ((LimitedInputStream) in).limit(limit);
+        return new LimitedInputStream(in, limit);
+    }
+
+    public long limit() {
+        return limit;
+    }
+
+    /**
+     * Only ever lowers the limit, so a binding can be stricter than the application but never looser.
+     */
+    public LimitedInputStream limit(long limit) {
+        if (limit >= 0 && (this.limit < 0 || limit < this.limit)) this.limit = limit;
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkLimit();
+        int value = super.read();
+        if (value >= 0) counted(1);
+        return value;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        checkLimit();
+        int read = super.read(bytes, offset, limit < 0 ? length : (int) Math.min(length, limit - count + 1));
+        if (read > 0) counted(read);
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkLimit();
+        long skipped = super.skip(limit < 0 ? n : Math.min(n, limit - count + 1));
+        counted(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void counted(long read) throws EntityTooLargeException {
+        count += read;
+        checkLimit();
+    }
+
+    private void checkLimit() throws EntityTooLargeException {
+        if (limit >= 0 && count > limit) throw new EntityTooLargeException(limit);
+    }
+}
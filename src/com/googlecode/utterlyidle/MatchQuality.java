@@ -1,25 +1,63 @@
 package com.googlecode.utterlyidle;
 
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Sequence;
+
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.utterlyidle.Accept.accept;
+
+/**
+ * Orders bindings by path segments, Accept quality, priority, number of arguments and then fewest default arguments.
+ * Everything but the Accept quality is worked out when the binding is built; the quality is worked out once per
+ * distinct produces list for the request being matched.
+ */
+public class MatchQuality implements Comparator<Binding> {
+    private final Accept accept;
+    private final Map<Sequence<String>, Float> qualities = new HashMap<Sequence<String>, Float>();
+
+    private MatchQuality(Accept accept) {
+        this.accept = accept;
+    }
+
+    public static MatchQuality matchQuality(Request request) {
+        return new MatchQuality(accept(request));
+    }
+
+    /**
+     * The first of the best bindings, which is what sorting and taking the head would give.
+     */
+    public Option<Binding> best(Iterable<? extends Binding> bindings) {
+        Binding best = null;
+        for (Binding binding : bindings) {
+            if (best == null || compare(binding, best) < 0) best = binding;
+        }
+        return best == null ? none(Binding.class) : some(best);
+    }
+
+    @Override
+    public int compare(Binding a, Binding b) {
+        int result = Integer.compare(b.uriTemplate().segments(), a.uriTemplate().segments());
+        if (result != 0) return result;
+        result = Float.compare(quality(b), quality(a));
+        if (result != 0) return result;
+        result = Integer.compare(b.priority(), a.priority());
+        if (result != 0) return result;
+        result = Integer.compare(b.numberOfArguments(), a.numberOfArguments());
+        if (result != 0) return result;
+        return Integer.compare(a.numberOfDefaultArguments(), b.numberOfDefaultArguments());
+    }
 
-import static com.googlecode.totallylazy.comparators.Comparators.ascending;
-import static com.googlecode.totallylazy.comparators.Comparators.comparators;
-import static com.googlecode.totallylazy.comparators.Comparators.descending;
-import static com.googlecode.totallylazy.comparators.Comparators.where;
-import static com.googlecode.utterlyidle.Binding.functions.numberOfArguments;
-import static com.googlecode.utterlyidle.Binding.functions.numberOfDefaultArguments;
-import static com.googlecode.utterlyidle.Binding.functions.pathSegments;
-import static com.googlecode.utterlyidle.Binding.functions.priority;
-import static com.googlecode.utterlyidle.ProducesMimeMatcher.quality;
-
-public class MatchQuality {
-    public static Comparator<Binding> matchQuality(Request request) {
-        return comparators(
-                where(pathSegments(), descending(Integer.class)),
-                where(quality(request), descending(Float.class)),
-                where(priority(), descending(Integer.class)),
-                where(numberOfArguments(), descending(Integer.class)),
-                where(numberOfDefaultArguments(), ascending(Integer.class))
-        );
+    private float quality(Binding binding) {
+        Float quality = qualities.get(binding.produces());
+        if (quality == null) {
+            quality = accept.quality(binding.produces());
+            qualities.put(binding.produces(), quality);
+        }
+        return quality;
     }
 }
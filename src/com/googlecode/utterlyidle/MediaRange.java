@@ -6,17 +6,16 @@ import com.googlecode.totallylazy.functions.Function1;
 import com.googlecode.totallylazy.predicates.Predicate;
 
 import static com.googlecode.totallylazy.Sequences.sequence;
-import static com.googlecode.utterlyidle.MediaType.WILDCARD;
 
 public class MediaRange implements Value<String> {
-    private static final String SUBTYPE_WILDCARD = "*";
-
     private final String value;
     private final float quality;
+    private final MediaType mediaType;
 
     public MediaRange(String value, float quality) {
         this.value = value;
         this.quality = quality;
+        this.mediaType = MediaType.mediaType(value);
     }
 
     public String value() {
@@ -27,32 +26,21 @@ public class MediaRange implements Value<String> {
         return quality;
     }
 
-    public static Predicate<String> sameValue(final String value) {
-        return mimeType -> {
-            if (mimeType.equals(WILDCARD) || value.equals(WILDCARD)) {
-                return true;
-            }
-            if (SUBTYPE_WILDCARD.equals(subType(mimeType)) || SUBTYPE_WILDCARD.equals(subType(value))) {
-                return primaryType(mimeType).equals(primaryType(value));
-            }
-            return mimeType.equals(value);
-        };
+    public MediaType mediaType() {
+        return mediaType;
     }
 
-    private static String subType(final String mimeType) {
-        String[] parts = mimeType.split("/");
-        return parts.length > 1 ? parts[1] : null;
+    public static Predicate<String> sameValue(final String value) {
+        return sameValue(MediaType.mediaType(value));
     }
 
-    private static String primaryType(final String mimeType) {
-        String[] parts = mimeType.split("/");
-        return parts[0];
+    public static Predicate<String> sameValue(final MediaType value) {
+        return mimeType -> MediaType.mediaType(mimeType).matches(value);
     }
 
     public static Function1<? super MediaRange, Iterable<MediaRange>> convertWildCardsTo(final Sequence<String> possibleContentTypes) {
         return mediaRange -> {
-            if (mediaRange.value().equals(WILDCARD)
-                    || SUBTYPE_WILDCARD.equals(subType(mediaRange.value()))) {
+            if (mediaRange.mediaType().hasWildcardSubtype()) {
                 return possibleContentTypes.map(toMediaType(mediaRange.quality()));
             }
             return sequence(mediaRange);
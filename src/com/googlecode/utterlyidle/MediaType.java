@@ -1,6 +1,29 @@
 package com.googlecode.utterlyidle;
 
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.Sequence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.HeaderCache.headerCache;
+
+/**
+ * The common media types plus a parsed form of any media type.
+ *
+ * Parsed media types are interned by their raw text, so matching a header against a binding compares already split
+ * parts (or the same instance) rather than splitting strings on every request.
+ */
 public class MediaType {
+    private static final String ANY = "*";
+    private static final HeaderCache<MediaType> cache = headerCache(MediaType::parse, 1024);
+
     public static final String WILDCARD = "*/*";
     public static final String APPLICATION_XML = "application/xml";
     public static final String APPLICATION_ATOM_XML = "application/atom+xml";
@@ -27,4 +50,122 @@ public class MediaType {
     public static final String IMAGE_SVG = "image/svg+xml";
     public static final String FONT_WOFF = "application/x-font-woff";
     public static final String FONT_SFNT = " application/font-sfnt";
-}
\ No newline at end of file
+
+    private final String value;
+    private final String type;
+    private final String subtype;
+    private final Sequence<Pair<String, String>> parameters;
+
+    private MediaType(String value, String type, String subtype, Sequence<Pair<String, String>> parameters) {
+        this.value = value;
+        this.type = type;
+        this.subtype = subtype;
+        this.parameters = parameters;
+    }
+
+    public static MediaType mediaType(String value) {
+        return cache.get(value);
+    }
+
+    public static HeaderCache<MediaType> cache() {
+        return cache;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public String subtype() {
+        return subtype;
+    }
+
+    public Sequence<Pair<String, String>> parameters() {
+        return parameters;
+    }
+
+    public Option<String> parameter(String name) {
+        for (Pair<String, String> parameter : parameters) {
+            if (parameter.first().equalsIgnoreCase(name)) return some(parameter.second());
+        }
+        return none(String.class);
+    }
+
+    public boolean isWildcard() {
+        return type.equals(ANY) && hasWildcardSubtype();
+    }
+
+    public boolean hasWildcardSubtype() {
+        return subtype.equals(ANY);
+    }
+
+    /**
+     * Whether either side is a wildcard for the other, otherwise the same type, subtype and parameters.
+     */
+    public boolean matches(MediaType other) {
+        if (this == other || isWildcard() || other.isWildcard()) return true;
+        if (!type.equals(other.type)) return false;
+        if (hasWildcardSubtype() || other.hasWildcardSubtype()) return true;
+        return subtype.equals(other.subtype) && sameParameters(other);
+    }
+
+    /**
+     * Whether this, taken as a range, covers the other: wildcards match anything and any parameters given here must be
+     * present there, but the other may carry extra parameters such as a charset.
+     */
+    public boolean includes(MediaType other) {
+        if (this == other || isWildcard()) return true;
+        if (!type.equals(other.type)) return false;
+        if (!hasWildcardSubtype() && !subtype.equals(other.subtype)) return false;
+        return parametersIn(other);
+    }
+
+    private boolean sameParameters(MediaType other) {
+        return parameters.size() == other.parameters.size() && parametersIn(other);
+    }
+
+    private boolean parametersIn(MediaType other) {
+        for (Pair<String, String> parameter : parameters) {
+            if (!parameter.second().equals(other.parameter(parameter.first()).getOrNull())) return false;
+        }
+        return true;
+    }
+
+    private static MediaType parse(String value) {
+        String[] segments = value.split(";");
+        String essence = segments[0].trim().toLowerCase(Locale.ENGLISH);
+        int slash = essence.indexOf('/');
+        String type = slash < 0 ? essence : essence.substring(0, slash).trim();
+        String subtype = slash < 0 ? "" : essence.substring(slash + 1).trim();
+        List<Pair<String, String>> parameters = new ArrayList<Pair<String, String>>();
+        for (int i = 1; i < segments.length; i++) {
+            int equals = segments[i].indexOf('=');
+            if (equals < 0) continue;
+            String name = segments[i].substring(0, equals).trim().toLowerCase(Locale.ENGLISH);
+            parameters.add(pair(name, unquote(segments[i].substring(equals + 1).trim())));
+        }
+        return new MediaType(value, type, subtype, sequence(parameters));
+    }
+
+    private static String unquote(String value) {
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) return value.substring(1, value.length() - 1);
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof MediaType)) return false;
+        MediaType mediaType = (MediaType) other;
+        return type.equals(mediaType.type) && subtype.equals(mediaType.subtype) && sameParameters(mediaType);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + subtype.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -1,14 +1,20 @@
 package com.googlecode.utterlyidle;
 
+import com.googlecode.totallylazy.functions.Block;
 import com.googlecode.totallylazy.io.Uri;
+import com.googlecode.utterlyidle.cookies.CookieParameters;
 import com.googlecode.utterlyidle.handlers.ContentLengthHandler;
 
+import java.io.OutputStream;
 
 public class MemoryRequest implements Request {
     private final String method;
     private final Uri uri;
     private final Entity entity;
     private final HeaderParameters headers;
+    private volatile QueryParameters query;
+    private volatile CookieParameters cookies;
+    private volatile ParsedForm form;
 
     private MemoryRequest(String method, Uri uri, HeaderParameters headers, Entity entity) {
         this.method = method.toUpperCase();
@@ -42,6 +48,38 @@ public class MemoryRequest implements Request {
         return headers;
     }
 
+    /**
+     * The uri, headers and entity never change for this request (creating a request with new ones gives a new
+     * instance), so each parsed view only needs working out once.
+     */
+    @Override
+    public QueryParameters query() {
+        QueryParameters result = query;
+        if (result == null) query = result = Request.super.query();
+        return result;
+    }
+
+    @Override
+    public CookieParameters cookies() {
+        CookieParameters result = cookies;
+        if (result == null) cookies = result = Request.super.cookies();
+        return result;
+    }
+
+    /**
+     * The entity itself can still be given a new writer, so the parsed form is only reused while the entity is
+     * writing what was parsed.
+     */
+    @Override
+    public FormParameters form() {
+        ParsedForm result = form;
+        if (result == null || result.writer != entity.writer()) {
+            FormParameters parameters = Request.super.form();
+            form = result = new ParsedForm(parameters, entity.writer());
+        }
+        return result.parameters;
+    }
+
     @Override
     public String toString() {
         return HttpMessage.toString(this);
@@ -56,4 +94,14 @@ public class MemoryRequest implements Request {
     public boolean equals(Object other) {
         return other instanceof Request && other.toString().equals(toString());
     }
+
+    private static class ParsedForm {
+        private final FormParameters parameters;
+        private final Block<OutputStream> writer;
+
+        private ParsedForm(FormParameters parameters, Block<OutputStream> writer) {
+            this.parameters = parameters;
+            this.writer = writer;
+        }
+    }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import com.googlecode.totallylazy.predicates.LogicalPredicate;
 import com.googlecode.totallylazy.predicates.Predicate;
 import com.googlecode.totallylazy.time.Dates;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -22,6 +23,7 @@ import java.util.Map;
 import static com.googlecode.totallylazy.Callers.call;
 import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.Unchecked.cast;
 import static com.googlecode.totallylazy.functions.Functions.identity;
 import static com.googlecode.totallylazy.predicates.Predicates.by;
 
@@ -52,6 +54,28 @@ public abstract class Parameters<Self extends Parameters<Self>> implements Itera
         return remove(name).add(name, value);
     }
 
+    /**
+     * Replaces each named parameter, or removes it when the value is null, copying the values once for the whole
+     * batch rather than once per name.
+     */
+    public Self replace(Iterable<? extends Pair<String, ?>> replacements) {
+        List<Predicate<String>> names = new ArrayList<Predicate<String>>();
+        List<Pair<String, String>> added = new ArrayList<Pair<String, String>>();
+        for (Pair<String, ?> replacement : replacements) {
+            names.add(call(predicate, replacement.first()));
+            if (replacement.second() != null) added.add(pair(replacement.first(), Builder.convert(replacement.second())));
+        }
+        if (names.isEmpty()) return cast(this);
+        return self(sequence(values).reject(pair -> matchesAny(names, pair.first())).join(added).toPersistentList());
+    }
+
+    private static boolean matchesAny(List<Predicate<String>> names, String name) {
+        for (Predicate<String> predicate : names) {
+            if (predicate.matches(name)) return true;
+        }
+        return false;
+    }
+
     public int size() {
         return values.size();
     }
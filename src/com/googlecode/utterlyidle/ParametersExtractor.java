@@ -3,80 +3,77 @@ package com.googlecode.utterlyidle;
 import com.googlecode.totallylazy.Option;
 import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Sequence;
-import com.googlecode.totallylazy.functions.Function1;
 import com.googlecode.totallylazy.predicates.Predicate;
-import com.googlecode.yadic.Container;
-import com.googlecode.totallylazy.reflection.TypeFor;
-import com.googlecode.yadic.resolvers.ProgrammerErrorResolver;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 
-import static com.googlecode.yadic.resolvers.Resolvers.create;
+import static com.googlecode.totallylazy.LazyException.lazyException;
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.utterlyidle.ArgumentPlan.argumentPlan;
 
 public class ParametersExtractor implements RequestExtractor<Object[]> {
-    private final UriTemplate uriTemplate;
+    private final ArgumentPlan argumentPlan;
+    private final Option<Long> maxEntitySize;
     private final Application application;
-    private final Sequence<Pair<Type, Option<Parameter>>> typesWithNamedParameter;
     private final ExceptionLogger logger;
 
     public ParametersExtractor(UriTemplate uriTemplate, Application application, Sequence<Pair<Type, Option<Parameter>>> typesWithNamedParameter, ExceptionLogger logger) {
-        this.uriTemplate = uriTemplate;
+        this(argumentPlan(uriTemplate, typesWithNamedParameter), application, logger);
+    }
+
+    public ParametersExtractor(ArgumentPlan argumentPlan, Application application, ExceptionLogger logger) {
+        this(argumentPlan, none(Long.class), application, logger);
+    }
+
+    public ParametersExtractor(ArgumentPlan argumentPlan, Option<Long> maxEntitySize, Application application, ExceptionLogger logger) {
+        this.argumentPlan = argumentPlan;
+        this.maxEntitySize = maxEntitySize;
         this.application = application;
-        this.typesWithNamedParameter = typesWithNamedParameter;
         this.logger = logger;
     }
 
+    public static ParametersExtractor parametersExtractor(Binding binding, Application application, ExceptionLogger logger) {
+        return new ParametersExtractor(binding.argumentPlan(), binding.maxEntitySize(), application, logger);
+    }
+
     public boolean matches(Request request) {
+        return !extractIfPossible(request).isEmpty();
+    }
+
+    /**
+     * None when the arguments can not be extracted, unless that is because the entity is too large: then no binding
+     * can have it.
+     */
+    public Option<Object[]> extractIfPossible(Request request) {
         try {
-            extract(request);
-            return true;
+            return some(extract(request));
         } catch (Exception e) {
+            if (EntityTooLargeException.isCause(e)) throw lazyException(e);
             logger.log(e);
-            return false;
+            return none();
         }
     }
 
+    /**
+     * The binding's own entity size limit applies before anything is read, so matching never buffers a form past it.
+     */
     public Object[] extract(final Request request) {
-        return typesWithNamedParameter.
-                map(pair -> application.usingArgumentScope(request, resolveParameter(pair))).
-                toArray(Object.class);
+        return argumentPlan.extract(limit(request), application);
     }
 
-    private Function1<Container, Object> resolveParameter(final Pair<Type, Option<Parameter>> pair) {
-        return container -> {
-            final Type type = pair.first();
-            final Option<Parameter> optionalParameter = pair.second();
-
-            container.addInstance(UriTemplate.class, uriTemplate);
-
-
-            for (Parameter parameter : optionalParameter) {
-                parameter.addTo(container);
+    private Request limit(Request request) {
+        for (Long limit : maxEntitySize) {
+            try {
+                return EntitySizeLimit.limit(request, limit);
+            } catch (EntityTooLargeException e) {
+                throw lazyException(e);
             }
-
-            if (!container.contains(String.class)) {
-                container.addType(String.class, new ProgrammerErrorResolver(String.class));
-            }
-
-            final Type iterableStringType = new TypeFor<Iterable<String>>() {}.get();
-            if (!container.contains(iterableStringType)) {
-                container.addType(iterableStringType, new ProgrammerErrorResolver(iterableStringType));
-            }
-
-            List<Type> types = typeArgumentsOf(type);
-
-            for (Type t : types) {
-                if (!container.contains(t)) {
-                    container.addType(t, create(t, container));
-                }
-            }
-
-            return container.resolve(type);
-
-        };
+        }
+        return request;
     }
 
     public static List<Type> typeArgumentsOf(Type type) {
@@ -97,7 +94,7 @@ public class ParametersExtractor implements RequestExtractor<Object[]> {
     }
 
     public static Predicate<Binding> parametersMatches(final Request request, final Application application, final ExceptionLogger logger) {
-        return binding -> new ParametersExtractor(binding.uriTemplate(), application, binding.parameters(), logger).matches(request);
+        return binding -> parametersExtractor(binding, application, logger).matches(request);
     }
 
-}
\ No newline at end of file
+}
@@ -1,24 +1,75 @@
 package com.googlecode.utterlyidle;
 
 import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.utterlyidle.bindings.BindingTrie;
+import com.googlecode.utterlyidle.bindings.actions.ResourceClass;
+import com.googlecode.utterlyidle.bindings.actions.ResourceMethod;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import static com.googlecode.totallylazy.Option.option;
 import static com.googlecode.totallylazy.Sequences.sequence;
-import static com.googlecode.utterlyidle.Binding.functions.isForMethod;
+import static com.googlecode.totallylazy.functions.Callables.value;
+import static com.googlecode.utterlyidle.Binding.functions.action;
+import static com.googlecode.utterlyidle.bindings.actions.Action.functions.metaData;
 
 public class RegisteredResources implements Resources {
     private final List<Binding> bindings = new CopyOnWriteArrayList<Binding>();
+    private final BindingTrie trie = new BindingTrie();
+    private final Set<Class> resourceClasses = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Method, Binding> methods = new ConcurrentHashMap<Method, Binding>();
+    private volatile boolean validated;
 
     public Resources add(Binding... bindings) {
         Collections.addAll(this.bindings, bindings);
+        trie.add(sequence(bindings));
+        resourceClasses.addAll(resourceClasses(sequence(bindings)).toList());
+        for (Binding binding : bindings) {
+            for (ResourceMethod resourceMethod : sequence(binding.action().metaData()).safeCast(ResourceMethod.class)) {
+                methods.putIfAbsent(resourceMethod.value(), binding);
+            }
+            if (!binding.validator().isEmpty()) validated = true;
+        }
         return this;
     }
 
+    public BindingTrie trie() {
+        return trie;
+    }
+
+    public boolean hasValidators() {
+        return validated;
+    }
+
+    public static boolean hasValidators(Iterable<? extends Binding> bindings) {
+        if (bindings instanceof RegisteredResources) return ((RegisteredResources) bindings).hasValidators();
+        return sequence(bindings).exists(binding -> !binding.validator().isEmpty());
+    }
+
+    public Sequence<Class> resourceClasses() {
+        return sequence(resourceClasses);
+    }
+
+    public boolean isResourceClass(Type type) {
+        return resourceClasses.contains(type);
+    }
+
+    public static Sequence<Class> resourceClasses(Iterable<? extends Binding> bindings) {
+        return sequence(bindings)
+                .map(action())
+                .flatMap(metaData(ResourceClass.class))
+                .map(value(Class.class));
+    }
+
     @Override
     public Iterator<Binding> iterator() {
         return bindings.iterator();
@@ -26,7 +77,6 @@ public class RegisteredResources implements Resources {
 
     @Override
     public Option<Binding> find(Method method) {
-        return sequence(bindings)
-                .find(isForMethod(method));
+        return option(methods.get(method));
     }
-}
\ No newline at end of file
+}
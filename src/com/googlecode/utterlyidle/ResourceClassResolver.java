@@ -0,0 +1,36 @@
+package com.googlecode.utterlyidle;
+
+import com.googlecode.yadic.Container;
+import com.googlecode.yadic.Resolver;
+
+import java.lang.reflect.Type;
+
+/**
+ * Sits between a request scope and the application scope, registering a resource class in the request scope the
+ * first time the request asks for it, so a request only pays for the resources it uses rather than every resource
+ * class being added to every request scope up front.
+ */
+public class ResourceClassResolver implements Resolver<Object> {
+    private final RegisteredResources resources;
+    private final Resolver<?> parent;
+    private Container scope;
+
+    public ResourceClassResolver(RegisteredResources resources, Resolver<?> parent) {
+        this.resources = resources;
+        this.parent = parent;
+    }
+
+    public <C extends Container> C scope(C scope) {
+        this.scope = scope;
+        return scope;
+    }
+
+    @Override
+    public Object resolve(Type type) throws Exception {
+        if (scope != null && resources.isResourceClass(type)) {
+            Class<?> resourceClass = (Class<?>) type;
+            return scope.add(resourceClass).get(resourceClass);
+        }
+        return parent.resolve(type);
+    }
+}
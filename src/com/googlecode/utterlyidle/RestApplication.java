@@ -1,36 +1,35 @@
 package com.googlecode.utterlyidle;
 
-import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.functions.Function1;
 import com.googlecode.utterlyidle.bindings.BindingMatcher;
-import com.googlecode.utterlyidle.bindings.DefaultBindingMatcher;
-import com.googlecode.utterlyidle.bindings.actions.ResourceClass;
+import com.googlecode.utterlyidle.bindings.ExtractedArguments;
+import com.googlecode.utterlyidle.bindings.TrieBindingMatcher;
 import com.googlecode.utterlyidle.handlers.AuditHandler;
 import com.googlecode.utterlyidle.handlers.ContentLengthHandler;
 import com.googlecode.utterlyidle.handlers.DateHandler;
+import com.googlecode.utterlyidle.handlers.EntitySizeHandler;
 import com.googlecode.utterlyidle.handlers.ExceptionHandler;
 import com.googlecode.utterlyidle.handlers.HeadRequestHandler;
+import com.googlecode.utterlyidle.handlers.PartsHandler;
 import com.googlecode.utterlyidle.handlers.RemoveDotSegmentsHandler;
 import com.googlecode.utterlyidle.handlers.ResponseHttpHandler;
+import com.googlecode.utterlyidle.handlers.ValidatorHandler;
 import com.googlecode.utterlyidle.modules.CoreModule;
 import com.googlecode.utterlyidle.modules.Module;
 import com.googlecode.utterlyidle.modules.Modules;
+import com.googlecode.utterlyidle.multipart.OpenParts;
 import com.googlecode.utterlyidle.rendering.exceptions.LastExceptionsHandler;
 import com.googlecode.utterlyidle.rendering.exceptions.LastExceptionsModule;
 import com.googlecode.utterlyidle.services.Services;
 import com.googlecode.yadic.Container;
-import com.googlecode.yadic.Containers;
 import com.googlecode.yadic.SimpleContainer;
 import com.googlecode.yadic.closeable.CloseableContainer;
 
 import java.io.IOException;
 
 import static com.googlecode.totallylazy.Closeables.using;
-import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.Unchecked.cast;
-import static com.googlecode.totallylazy.functions.Callables.value;
-import static com.googlecode.utterlyidle.Binding.functions.action;
-import static com.googlecode.utterlyidle.bindings.actions.Action.functions.metaData;
+import static com.googlecode.yadic.Containers.addIfAbsent;
 
 public class RestApplication implements Application {
     private final ContainerFactory containerFactory;
@@ -91,10 +90,26 @@ public class RestApplication implements Application {
         return using(requestScope(), callable);
     }
 
+    /**
+     * Module activations come from the plan Modules keeps between requests, and resource classes are only registered
+     * in the scope when the request first asks for one, unless the Bindings are not RegisteredResources.
+     */
     protected CloseableContainer requestScope() {
-        final CloseableContainer requestScope = containerFactory.newCloseableContainer(applicationScope);
-        requestScope.add(BindingMatcher.class, DefaultBindingMatcher.class);
+        Bindings bindings = applicationScope.get(Bindings.class);
+        if (bindings instanceof RegisteredResources) {
+            ResourceClassResolver resources = new ResourceClassResolver((RegisteredResources) bindings, applicationScope);
+            return requestScope(resources.scope(containerFactory.newCloseableContainer(resources)));
+        }
+        CloseableContainer requestScope = requestScope(containerFactory.newCloseableContainer(applicationScope));
+        for (Class resourceClass : RegisteredResources.resourceClasses(bindings)) addIfAbsent(requestScope, resourceClass);
+        return requestScope;
+    }
+
+    private CloseableContainer requestScope(CloseableContainer requestScope) {
+        requestScope.add(ExtractedArguments.class);
+        requestScope.add(BindingMatcher.class, TrieBindingMatcher.class);
         requestScope.add(HttpHandler.class, BaseHandler.class);
+        requestScope.decorate(HttpHandler.class, ValidatorHandler.class);
         requestScope.decorate(HttpHandler.class, ResponseHttpHandler.class);
         requestScope.decorate(HttpHandler.class, DateHandler.class);
         modules.activateRequestModules(requestScope);
@@ -104,24 +119,12 @@ public class RestApplication implements Application {
         requestScope.decorate(HttpHandler.class, ContentLengthHandler.class);
         requestScope.decorate(HttpHandler.class, HeadRequestHandler.class);
         requestScope.decorate(HttpHandler.class, RemoveDotSegmentsHandler.class);
+        requestScope.decorate(HttpHandler.class, EntitySizeHandler.class);
         requestScope.decorate(HttpHandler.class, AuditHandler.class);
-        addResourcesIfNeeded(requestScope);
+        requestScope.decorate(HttpHandler.class, PartsHandler.class);
         return requestScope;
     }
 
-    private void addResourcesIfNeeded(Container requestScope) {
-        Bindings bindings = requestScope.get(Bindings.class);
-        resourceClasses(bindings)
-                .fold(requestScope, Containers::addIfAbsent);
-    }
-
-    private Sequence<Class> resourceClasses(Bindings bindings) {
-        return sequence(bindings)
-                .map(action())
-                .flatMap(metaData(ResourceClass.class))
-                .map(value(Class.class));
-    }
-
     public <T> T usingArgumentScope(Request request, Function1<Container, T> callable) {
         checkNotClosed();
         return using(argumentScope(request), callable);
@@ -130,6 +133,7 @@ public class RestApplication implements Application {
     protected Container argumentScope(Request request) {
         final Container argumentScope = new SimpleContainer();
         argumentScope.addInstance(Request.class, request);
+        argumentScope.addInstance(OpenParts.class, applicationScope.get(OpenParts.class));
         modules.activateArgumentModules(argumentScope);
         return argumentScope;
     }
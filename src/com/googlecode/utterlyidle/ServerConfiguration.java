@@ -24,6 +24,7 @@ public class ServerConfiguration {
     public static final String SERVER_BIND_ADDRESS = "server.bind.address";
     public static final String SERVER_PORT = "server.port";
     public static final String SERVER_CLASS = "server.class";
+    public static final String MAX_ENTITY_SIZE = "server.max.entity.size";
 
     public static final String DEFAULT_PROTOCOL = Protocol.HTTP;
     public static final String DEFAULT_BASE_PATH = "/";
@@ -31,6 +32,7 @@ public class ServerConfiguration {
     public static final String DEFAULT_BIND_ADDRESS = "0.0.0.0";
     public static final String DEFAULT_PORT = "0";
     public static final String DEFAULT_CLASS = RestServer.class.getCanonicalName();
+    public static final String DEFAULT_MAX_ENTITY_SIZE = String.valueOf(EntitySizeLimit.NO_LIMIT);
 
     private final BasePath basePath;
     private final int maxThreadNumber;
@@ -38,14 +40,20 @@ public class ServerConfiguration {
     private final int port;
     private final Class<? extends Server> serverClass;
     private final Option<SSLContext> sslContext;
+    private final long maxEntitySize;
 
     public ServerConfiguration(BasePath basePath, int maxThreadNumber, InetAddress bindAddress, int port, Class<? extends Server> serverClass, final Option<SSLContext> sslContext) {
+        this(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext, EntitySizeLimit.NO_LIMIT);
+    }
+
+    public ServerConfiguration(BasePath basePath, int maxThreadNumber, InetAddress bindAddress, int port, Class<? extends Server> serverClass, final Option<SSLContext> sslContext, long maxEntitySize) {
         this.basePath = basePath;
         this.maxThreadNumber = maxThreadNumber;
         this.bindAddress = bindAddress;
         this.port = port;
         this.serverClass = serverClass;
         this.sslContext = sslContext;
+        this.maxEntitySize = maxEntitySize;
     }
 
     public ServerConfiguration() {
@@ -59,7 +67,8 @@ public class ServerConfiguration {
                 toInetAddress(properties.getProperty(SERVER_BIND_ADDRESS, DEFAULT_BIND_ADDRESS)),
                 valueOf(properties.getProperty(SERVER_PORT, DEFAULT_PORT)),
                 toServer(properties.getProperty(SERVER_CLASS, DEFAULT_CLASS)),
-                toSSLContext(properties.getProperty(SERVER_PROTOCOL, DEFAULT_PROTOCOL)));
+                toSSLContext(properties.getProperty(SERVER_PROTOCOL, DEFAULT_PROTOCOL)),
+                Long.parseLong(properties.getProperty(MAX_ENTITY_SIZE, DEFAULT_MAX_ENTITY_SIZE)));
     }
 
     public static ServerConfiguration defaultConfiguration() {
@@ -71,7 +80,7 @@ public class ServerConfiguration {
     }
 
     public ServerConfiguration basePath(BasePath basePath) {
-        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext);
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext, maxEntitySize);
     }
 
     public int maxThreadNumber() {
@@ -79,7 +88,7 @@ public class ServerConfiguration {
     }
 
     public ServerConfiguration maxThreadNumber(int maxThreadNumber) {
-        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext);
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext, maxEntitySize);
     }
 
     public Class<? extends Server> serverClass() {
@@ -87,7 +96,7 @@ public class ServerConfiguration {
     }
 
     public ServerConfiguration serverClass(Class<? extends Server> serverClass) {
-        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext);
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext, maxEntitySize);
     }
 
     public InetAddress bindAddress() {
@@ -95,7 +104,7 @@ public class ServerConfiguration {
     }
 
     public ServerConfiguration bindAddress(InetAddress bindAddress) {
-        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext);
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext, maxEntitySize);
     }
 
     public int port() {
@@ -103,7 +112,7 @@ public class ServerConfiguration {
     }
 
     public ServerConfiguration port(int bindPort) {
-        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, bindPort, serverClass, sslContext);
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, bindPort, serverClass, sslContext, maxEntitySize);
     }
 
     public String protocol() {
@@ -111,7 +120,7 @@ public class ServerConfiguration {
     }
 
     public ServerConfiguration protocol(final String protocol) {
-        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, toSSLContext(protocol));
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, toSSLContext(protocol), maxEntitySize);
     }
 
     public Option<SSLContext> sslContext() {
@@ -119,7 +128,18 @@ public class ServerConfiguration {
     }
 
     public ServerConfiguration sslContext(final SSLContext sslContext) {
-        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, some(sslContext));
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, some(sslContext), maxEntitySize);
+    }
+
+    /**
+     * The most bytes a request entity may have before the server answers 413, or a negative number for no limit.
+     */
+    public long maxEntitySize() {
+        return maxEntitySize;
+    }
+
+    public ServerConfiguration maxEntitySize(long maxEntitySize) {
+        return new ServerConfiguration(basePath, maxThreadNumber, bindAddress, port, serverClass, sslContext, maxEntitySize);
     }
 
     private static Option<SSLContext> toSSLContext(String protocol){
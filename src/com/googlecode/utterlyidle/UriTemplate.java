@@ -1,6 +1,6 @@
 package com.googlecode.utterlyidle;
 
-import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.UrlEncodedMessage;
 import com.googlecode.totallylazy.predicates.Predicate;
 import com.googlecode.totallylazy.regex.Matches;
@@ -8,55 +8,133 @@ import com.googlecode.totallylazy.regex.Regex;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.regex.Regex.regex;
 import static com.googlecode.utterlyidle.PathParameters.pathParameters;
 
 public class UriTemplate implements Extractor<String, PathParameters>, Predicate<String> {
     private static final Regex pathParameters = regex("\\{([^\\}]+?)(?:\\:([^\\}]+))?\\}");
+    public static final String END = "$";
     private final String template;
     private final Matches matches;
-    private final Sequence<String> names;
-    private final Regex templateRegex;
+    private final Segment[] segments;
+    private final String[] names;
+    private final int segmentCount;
+    private final boolean hasPatterns;
+    private volatile String generated;
 
     private UriTemplate(String template) {
         this.template = trimSlashes(template);
         matches = pathParameters.findMatches(this.template + "{$:(/.*)?}");
-        names = matches.map(m -> m.group(1));
-        templateRegex = regex(matches.replace(
-                notMatched -> Pattern.quote(notMatched.toString()),
-                matched -> matched.group(2) == null ? "([^/]+)" : "(" + matched.group(2) + ")"));
+        segments = compile(this.template);
+        names = names(segments);
+        hasPatterns = hasPatterns(segments);
+        segmentCount = this.template.replaceAll("\\{[^\\}]*\\}", " ").split("\\/").length;
     }
 
     public static UriTemplate uriTemplate(String template) {
         return new UriTemplate(template);
     }
 
-    private static final Pattern trim = Pattern.compile("^(/)?(.*?)(/)?$");
     public static String trimSlashes(String value) {
-        return trim.matcher(value).replaceAll("$2");
+        int start = start(value);
+        int end = end(value, start);
+        if (start == 0 && end == value.length()) return value;
+        return value.substring(start, end);
+    }
+
+    private static int start(String value) {
+        return value.startsWith("/") ? 1 : 0;
+    }
+
+    private static int end(String value, int start) {
+        return value.length() > start && value.endsWith("/") ? value.length() - 1 : value.length();
     }
 
     public boolean matches(final String uri) {
-        return templateRegex.matches(trimSlashes(uri));
+        String path = input(uri);
+        int start = start(path);
+        return match(path, end(path, start), 0, start, null);
     }
 
     public PathParameters extract(String uri) {
-        List<String> values = groupValues(templateRegex.findMatches(UrlEncodedMessage.decode(trimSlashes(uri))).head());
-        return pathParameters(names.zip(values));
+        String path = input(uri);
+        int start = start(path);
+        int[] captures = new int[names.length * 2];
+        if (!match(path, end(path, start), 0, start, captures))
+            throw new IllegalArgumentException(String.format("%s does not match %s", uri, template));
+        List<Pair<String, String>> values = new ArrayList<Pair<String, String>>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            values.add(pair(names[i], UrlEncodedMessage.decode(path.substring(captures[i * 2], captures[i * 2 + 1]))));
+        }
+        return pathParameters(values);
     }
 
-    private List<String> groupValues(MatchResult matchResult) {
-        List<String> result = new ArrayList<String>();
-        for (int i = 1; i < matchResult.groupCount(); i++) {
-            result.add(matchResult.group(i));
+    /**
+     * Explicit {name:regex} constraints may anchor on the end of the path, so they need to see it without the
+     * trailing slash. Everything else is matched in place.
+     */
+    private String input(String uri) {
+        return hasPatterns ? trimSlashes(uri) : uri;
+    }
+
+    /**
+     * Matches uri[start, end) against the segments from index onwards, backtracking over the possible
+     * lengths of each capture (longest first, like a greedy regex group) and recording the offsets of
+     * every capture in captures when it is not null.
+     */
+    private boolean match(String uri, int end, int index, int start, int[] captures) {
+        if (index == segments.length) {
+            if (start != end && uri.charAt(start) != '/') return false;
+            record(captures, names.length - 1, start, end);
+            return true;
+        }
+        Segment segment = segments[index];
+        if (segment.literal != null) {
+            return end - start >= segment.literal.length() &&
+                    uri.startsWith(segment.literal, start) &&
+                    match(uri, end, index + 1, start + segment.literal.length(), captures);
+        }
+        if (segment.pattern == null) {
+            int limit = uri.indexOf('/', start);
+            if (limit == -1 || limit > end) limit = end;
+            for (int position = limit; position > start; position--) {
+                if (match(uri, end, index + 1, position, captures)) {
+                    record(captures, segment.capture, start, position);
+                    return true;
+                }
+            }
+            return false;
         }
-        return result;
+        Matcher matcher = segment.pattern.matcher(uri).useAnchoringBounds(false).useTransparentBounds(true);
+        for (int position = end; position >= start; position--) {
+            if (matcher.region(start, position).matches() && match(uri, end, index + 1, position, captures)) {
+                record(captures, segment.capture, start, position);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void record(int[] captures, int capture, int start, int end) {
+        if (captures == null) return;
+        captures[capture * 2] = start;
+        captures[capture * 2 + 1] = end;
     }
 
     public String generate(final PathParameters parameters) {
+        if (names.length == 1 && !parameters.contains(END)) {
+            String result = generated;
+            if (result == null) generated = result = replace(pathParameters());
+            return result;
+        }
+        return replace(parameters);
+    }
+
+    private String replace(final PathParameters parameters) {
         return matches.replace(matchResult -> {
             String paramValue = parameters.getValue(matchResult.group(1));
             if(paramValue==null)return null;
@@ -81,6 +159,82 @@ public class UriTemplate implements Extractor<String, PathParameters>, Predicate
     }
 
     public int segments() {
-        return template.replaceAll("\\{[^\\}]*\\}", " ").split("\\/").length;
+        return segmentCount;
+    }
+
+    private static Segment[] compile(String template) {
+        List<Segment> result = new ArrayList<Segment>();
+        int capture = 0;
+        int position = 0;
+        while (position < template.length()) {
+            int open = template.indexOf('{', position);
+            int close = open == -1 ? -1 : template.indexOf('}', open);
+            if (open == -1 || close == -1) {
+                result.add(Segment.literal(template.substring(position)));
+                break;
+            }
+            if (close == open + 1) {
+                result.add(Segment.literal(template.substring(position, close + 1)));
+                position = close + 1;
+                continue;
+            }
+            if (open > position) result.add(Segment.literal(template.substring(position, open)));
+            int colon = template.indexOf(':', open + 2);
+            if (colon == -1 || colon >= close - 1) result.add(Segment.capture(capture++, template.substring(open + 1, close), null));
+            else result.add(Segment.capture(capture++, template.substring(open + 1, colon), Pattern.compile(template.substring(colon + 1, close))));
+            position = close + 1;
+        }
+        return mergeLiterals(result);
+    }
+
+    private static Segment[] mergeLiterals(List<Segment> segments) {
+        List<Segment> result = new ArrayList<Segment>();
+        for (Segment segment : segments) {
+            int last = result.size() - 1;
+            if (segment.literal != null && last >= 0 && result.get(last).literal != null) {
+                result.set(last, Segment.literal(result.get(last).literal + segment.literal));
+            } else {
+                result.add(segment);
+            }
+        }
+        return result.toArray(new Segment[result.size()]);
+    }
+
+    private static String[] names(Segment[] segments) {
+        List<String> names = new ArrayList<String>();
+        for (Segment segment : segments) {
+            if (segment.name != null) names.add(segment.name);
+        }
+        names.add(END);
+        return names.toArray(new String[names.size()]);
+    }
+
+    private static boolean hasPatterns(Segment[] segments) {
+        for (Segment segment : segments) {
+            if (segment.pattern != null) return true;
+        }
+        return false;
+    }
+
+    private static class Segment {
+        private final String literal;
+        private final int capture;
+        private final String name;
+        private final Pattern pattern;
+
+        private Segment(String literal, int capture, String name, Pattern pattern) {
+            this.literal = literal;
+            this.capture = capture;
+            this.name = name;
+            this.pattern = pattern;
+        }
+
+        private static Segment literal(String value) {
+            return new Segment(value, -1, null, null);
+        }
+
+        private static Segment capture(int capture, String name, Pattern pattern) {
+            return new Segment(null, capture, name, pattern);
+        }
     }
-}
\ No newline at end of file
+}
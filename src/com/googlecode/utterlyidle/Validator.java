@@ -0,0 +1,16 @@
+package com.googlecode.utterlyidle;
+
+import com.googlecode.totallylazy.Option;
+
+import java.util.Date;
+
+/**
+ * A cheap lookup of what a resource would tag its response with, such as a version number or a last modified time,
+ * so a conditional GET can be answered before the resource runs. It is resolved from the request scope, so it can
+ * take the same dependencies the resource does.
+ */
+public interface Validator {
+    Option<EntityTag> etag(Request request) throws Exception;
+
+    Option<Date> lastModified(Request request) throws Exception;
+}
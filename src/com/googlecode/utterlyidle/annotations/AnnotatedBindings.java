@@ -19,6 +19,7 @@ import com.googlecode.utterlyidle.Parameters;
 import com.googlecode.utterlyidle.PathParameters;
 import com.googlecode.utterlyidle.QueryParameters;
 import com.googlecode.utterlyidle.RelativeUriExtractor;
+import com.googlecode.utterlyidle.Validator;
 import com.googlecode.utterlyidle.cookies.CookieParameters;
 
 import java.lang.annotation.Annotation;
@@ -41,6 +42,7 @@ import static com.googlecode.utterlyidle.bindings.actions.InvokeResourceMethod.c
 
 public class AnnotatedBindings {
     public static Binding[] annotatedClass(Class<?> aClass) {
+        for (Binding[] indexed : BindingIndex.bindings(aClass)) return indexed;
         return sequence(aClass.getMethods()).flatMap(method -> binding(method)).toArray(Binding.class);
     }
 
@@ -60,7 +62,7 @@ public class AnnotatedBindings {
     }
 
     private static Function1<HttpMethod, Binding> asBinding(final Method method) {
-        return httpMethod -> new Binding(invokeResourceMethod(method), uriTemplate(method), httpMethod.value(), consumesMimeMatcher(method), producesMimeMatcher(method), extractTypesAndNames(method), new PriorityExtractor().extract(method), hidden(method), extractView(method));
+        return httpMethod -> new Binding(invokeResourceMethod(method), uriTemplate(method), httpMethod.value(), consumesMimeMatcher(method), producesMimeMatcher(method), extractTypesAndNames(method), new PriorityExtractor().extract(method), hidden(method), extractView(method), maxEntitySize(method), validator(method));
     }
 
     private static View extractView(final Method method) {
@@ -91,6 +93,18 @@ public class AnnotatedBindings {
         return sequence(method.getAnnotation(Hidden.class), method.getDeclaringClass().getAnnotation(Hidden.class)).exists(notNullValue());
     }
 
+    static Option<Long> maxEntitySize(Method method) {
+        return sequence(method.getAnnotation(MaxEntitySize.class), method.getDeclaringClass().getAnnotation(MaxEntitySize.class)).
+                find(notNullValue()).
+                map(MaxEntitySize::value);
+    }
+
+    static Option<Class<? extends Validator>> validator(Method method) {
+        return sequence(method.getAnnotation(ValidatedBy.class), method.getDeclaringClass().getAnnotation(ValidatedBy.class)).
+                find(notNullValue()).
+                <Class<? extends Validator>>map(ValidatedBy::value);
+    }
+
     private static Sequence<Pair<Type, Option<Parameter>>> extractTypesAndNames(Method method) {
         return sequence(method.getGenericParameterTypes()).zip(namedParameters(method));
     }
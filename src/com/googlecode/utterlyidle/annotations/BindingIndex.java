@@ -0,0 +1,232 @@
+package com.googlecode.utterlyidle.annotations;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.FormParameters;
+import com.googlecode.utterlyidle.HeaderParameters;
+import com.googlecode.utterlyidle.NamedParameter;
+import com.googlecode.utterlyidle.Parameter;
+import com.googlecode.utterlyidle.Parameters;
+import com.googlecode.utterlyidle.PathParameters;
+import com.googlecode.utterlyidle.QueryParameters;
+import com.googlecode.utterlyidle.cookies.CookieParameters;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static com.googlecode.totallylazy.LazyException.lazyException;
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.option;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.UriTemplate.uriTemplate;
+import static com.googlecode.utterlyidle.annotations.View.constructors.view;
+import static com.googlecode.utterlyidle.bindings.actions.InvokeResourceMethod.constructors.invokeResourceMethod;
+
+/**
+ * The bindings of a resource class as written at build time by BindingIndexProcessor.
+ *
+ * Each class gets a resource named after it holding one line per binding: tab separated fields, lists separated by
+ * commas and every value url encoded so it can not contain either. The first line is a fingerprint of the public
+ * method signatures of the class and its superclasses, so an index left behind by an older build is not trusted.
+ */
+public class BindingIndex {
+    public static final String LOCATION = "META-INF/utterlyidle/bindings/";
+    private static final String NO_PARAMETER = "-";
+    private static final String FINGERPRINT = "#";
+    private static final String UTF_8 = "UTF-8";
+    static final Map<String, Class<? extends Parameters<?>>> parameters = new HashMap<String, Class<? extends Parameters<?>>>() {{
+        put(QueryParam.class.getName(), QueryParameters.class);
+        put(FormParam.class.getName(), FormParameters.class);
+        put(PathParam.class.getName(), PathParameters.class);
+        put(HeaderParam.class.getName(), HeaderParameters.class);
+        put(CookieParam.class.getName(), CookieParameters.class);
+    }};
+    private static final Map<String, Class<?>> primitives = new HashMap<String, Class<?>>() {{
+        for (Class<?> type : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class}) {
+            put(type.getName(), type);
+        }
+    }};
+
+    public static String resourceName(String className) {
+        return LOCATION + className;
+    }
+
+    public static Option<Binding[]> bindings(Class<?> aClass) {
+        ClassLoader loader = aClass.getClassLoader();
+        if (loader == null) return none();
+        return bindings(aClass, loader.getResource(resourceName(aClass.getName())));
+    }
+
+    /**
+     * None when there is no index, it was written for a different version of the class or it names methods or types
+     * the class no longer has, so callers can fall back to reflection. An index that can not be read or parsed is an
+     * error.
+     */
+    public static Option<Binding[]> bindings(Class<?> aClass, URL index) {
+        if (index == null) return none();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), UTF_8))) {
+            if (!fingerprintLine(fingerprint(aClass)).equals(reader.readLine())) return none();
+            List<Binding> bindings = new ArrayList<Binding>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) bindings.add(binding(aClass, line));
+            }
+            return some(bindings.toArray(new Binding[bindings.size()]));
+        } catch (NoSuchMethodException | ClassNotFoundException e) {
+            return none();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read the binding index " + index, e);
+        }
+    }
+
+    static String line(String methodName, List<String> parameterTypes, String httpMethod, String path,
+                       List<String> consumes, List<String> produces, int priority, boolean hidden, String view,
+                       List<String> parameterDescriptors) {
+        return join("\t", encode(methodName), list(parameterTypes), encode(httpMethod), encode(path),
+                list(consumes), list(produces), String.valueOf(priority), String.valueOf(hidden), encode(view),
+                list(parameterDescriptors));
+    }
+
+    static String fingerprintLine(String fingerprint) {
+        return FINGERPRINT + fingerprint;
+    }
+
+    static String fingerprint(Class<?> aClass) {
+        List<String> signatures = new ArrayList<String>();
+        for (Class<?> type = aClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (!Modifier.isPublic(method.getModifiers()) || method.isSynthetic()) continue;
+                List<String> parameterTypes = new ArrayList<String>();
+                for (Class<?> parameterType : method.getParameterTypes()) {
+                    parameterTypes.add(typeName(parameterType));
+                }
+                signatures.add(signature(method.getName(), parameterTypes));
+            }
+        }
+        return fingerprint(signatures);
+    }
+
+    static String signature(String methodName, List<String> parameterTypes) {
+        return methodName + "(" + join(",", parameterTypes.toArray(new String[parameterTypes.size()])) + ")";
+    }
+
+    static String fingerprint(List<String> signatures) {
+        List<String> sorted = new ArrayList<String>(signatures);
+        Collections.sort(sorted);
+        CRC32 crc = new CRC32();
+        crc.update(join(";", sorted.toArray(new String[sorted.size()])).getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String typeName(Class<?> type) {
+        if (type.isArray()) return typeName(type.getComponentType()) + "[]";
+        return type.getName();
+    }
+
+    static String parameter(String annotation, String name, String defaultValue) {
+        if (defaultValue == null) return join("=", encode(annotation), encode(name));
+        return join("=", encode(annotation), encode(name), encode(defaultValue));
+    }
+
+    static String noParameter() {
+        return NO_PARAMETER;
+    }
+
+    private static Binding binding(Class<?> aClass, String line) throws Exception {
+        String[] fields = line.split("\t", -1);
+        Method method = aClass.getMethod(decode(fields[0]), types(aClass.getClassLoader(), values(fields[1])));
+        Sequence<Option<Parameter>> namedParameters = sequence(values(fields[9])).map(BindingIndex::namedParameter);
+        return new Binding(invokeResourceMethod(method),
+                uriTemplate(decode(fields[3])),
+                decode(fields[2]),
+                sequence(values(fields[4])),
+                sequence(values(fields[5])),
+                sequence(method.getGenericParameterTypes()).zip(namedParameters),
+                Integer.parseInt(fields[6]),
+                Boolean.parseBoolean(fields[7]),
+                view(decode(fields[8])),
+                AnnotatedBindings.maxEntitySize(method),
+                AnnotatedBindings.validator(method));
+    }
+
+    private static Option<Parameter> namedParameter(String descriptor) throws Exception {
+        if (descriptor.equals(NO_PARAMETER)) return none();
+        String[] parts = descriptor.split("=", -1);
+        Class<? extends Parameters<?>> parametersClass = parameters.get(decode(parts[0]));
+        if (parametersClass == null) throw new IllegalArgumentException("Unsupported parameter " + descriptor);
+        Option<String> defaultValue = parts.length > 2 ? option(decode(parts[2])) : none(String.class);
+        return Option.<Parameter>some(new NamedParameter(decode(parts[1]), parametersClass, defaultValue));
+    }
+
+    private static Class<?>[] types(ClassLoader loader, List<String> names) throws ClassNotFoundException {
+        Class<?>[] types = new Class<?>[names.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = type(loader, names.get(i));
+        }
+        return types;
+    }
+
+    private static Class<?> type(ClassLoader loader, String name) throws ClassNotFoundException {
+        if (name.endsWith("[]")) return Array.newInstance(type(loader, name.substring(0, name.length() - 2)), 0).getClass();
+        if (primitives.containsKey(name)) return primitives.get(name);
+        return Class.forName(name, false, loader);
+    }
+
+    private static String list(List<String> values) {
+        List<String> encoded = new ArrayList<String>(values.size());
+        for (String value : values) {
+            encoded.add(encode(value));
+        }
+        return join(",", encoded.toArray(new String[encoded.size()]));
+    }
+
+    private static List<String> values(String field) {
+        List<String> values = new ArrayList<String>();
+        if (field.isEmpty()) return values;
+        for (String value : field.split(",", -1)) {
+            values.add(decode(value));
+        }
+        return values;
+    }
+
+    private static String join(String separator, String... values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) builder.append(separator);
+            builder.append(values[i]);
+        }
+        return builder.toString();
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw lazyException(e);
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw lazyException(e);
+        }
+    }
+}
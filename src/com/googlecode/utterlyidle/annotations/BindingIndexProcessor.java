@@ -0,0 +1,180 @@
+package com.googlecode.utterlyidle.annotations;
+
+import com.googlecode.utterlyidle.MediaType;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.googlecode.utterlyidle.UriTemplate.trimSlashes;
+
+/**
+ * Writes a BindingIndex for every class with annotated resource methods so AnnotatedBindings does not have to reflect
+ * over them at start up. It is not registered as a service; add it to javac with
+ * -processor com.googlecode.utterlyidle.annotations.BindingIndexProcessor to opt in.
+ */
+@SupportedAnnotationTypes("*")
+public class BindingIndexProcessor extends AbstractProcessor {
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnvironment.getRootElements())) {
+            index(type);
+        }
+        return false;
+    }
+
+    private void index(TypeElement type) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            index(nested);
+        }
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.INTERFACE) return;
+        List<String> lines = new ArrayList<String>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC)) continue;
+            String httpMethod = httpMethod(method);
+            if (httpMethod != null) lines.add(line(method, httpMethod));
+        }
+        if (!lines.isEmpty()) write(type, lines);
+    }
+
+    private String fingerprint(TypeElement type) {
+        List<String> signatures = new ArrayList<String>();
+        for (TypeElement current = type; current != null && !current.getQualifiedName().contentEquals(Object.class.getName()); current = superclass(current)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (!method.getModifiers().contains(Modifier.PUBLIC)) continue;
+                List<String> parameterTypes = new ArrayList<String>();
+                for (VariableElement parameter : method.getParameters()) {
+                    parameterTypes.add(typeName(parameter.asType()));
+                }
+                signatures.add(BindingIndex.signature(method.getSimpleName().toString(), parameterTypes));
+            }
+        }
+        return BindingIndex.fingerprint(signatures);
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (!(superclass instanceof DeclaredType)) return null;
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private String line(ExecutableElement method, String httpMethod) {
+        TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+        List<String> parameterTypes = new ArrayList<String>();
+        List<String> parameters = new ArrayList<String>();
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.add(typeName(parameter.asType()));
+            parameters.add(parameter(parameter));
+        }
+        return BindingIndex.line(method.getSimpleName().toString(),
+                parameterTypes,
+                httpMethod,
+                path(declaringType.getAnnotation(Path.class), method.getAnnotation(Path.class)),
+                mediaTypes(method.getAnnotation(Consumes.class), declaringType.getAnnotation(Consumes.class)),
+                mediaTypes(method.getAnnotation(Produces.class), declaringType.getAnnotation(Produces.class)),
+                priority(method.getAnnotation(Priority.class), declaringType.getAnnotation(Priority.class)),
+                method.getAnnotation(Hidden.class) != null || declaringType.getAnnotation(Hidden.class) != null,
+                method.getAnnotation(View.class) == null ? method.getSimpleName().toString() : method.getAnnotation(View.class).value(),
+                parameters);
+    }
+
+    private static String httpMethod(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            HttpMethod httpMethod = annotation.getAnnotationType().asElement().getAnnotation(HttpMethod.class);
+            if (httpMethod != null) return httpMethod.value();
+        }
+        return null;
+    }
+
+    private static String path(Path classPath, Path methodPath) {
+        if (classPath == null) return methodPath == null ? "" : trimSlashes(methodPath.value());
+        if (methodPath == null) return trimSlashes(classPath.value());
+        return trimSlashes(classPath.value()) + "/" + trimSlashes(methodPath.value());
+    }
+
+    private static List<String> mediaTypes(Consumes method, Consumes type) {
+        return method != null ? Arrays.asList(method.value()) : type != null ? Arrays.asList(type.value()) : wildcard();
+    }
+
+    private static List<String> mediaTypes(Produces method, Produces type) {
+        return method != null ? Arrays.asList(method.value()) : type != null ? Arrays.asList(type.value()) : wildcard();
+    }
+
+    private static List<String> wildcard() {
+        return Arrays.asList(MediaType.WILDCARD);
+    }
+
+    private static int priority(Priority method, Priority type) {
+        return method != null ? method.value() : type != null ? type.value() : Priority.Medium;
+    }
+
+    private String parameter(VariableElement parameter) {
+        for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            String name = processingEnv.getElementUtils().getBinaryName(annotationType).toString();
+            if (!BindingIndex.parameters.containsKey(name)) continue;
+            DefaultValue defaultValue = parameter.getAnnotation(DefaultValue.class);
+            return BindingIndex.parameter(name, value(annotation), defaultValue == null ? null : defaultValue.value());
+        }
+        return BindingIndex.noParameter();
+    }
+
+    private static String value(AnnotationMirror annotation) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) return String.valueOf(entry.getValue().getValue());
+        }
+        throw new IllegalArgumentException(annotation + " has no value");
+    }
+
+    private String typeName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind().isPrimitive()) return erased.toString();
+        if (erased instanceof ArrayType) return typeName(((ArrayType) erased).getComponentType()) + "[]";
+        return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) erased).asElement()).toString();
+    }
+
+    private void write(TypeElement type, List<String> lines) {
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", BindingIndex.resourceName(name), type);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), "UTF-8")) {
+                writer.write(BindingIndex.fingerprintLine(fingerprint(type)));
+                writer.write('\n');
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write binding index for " + name + ": " + e.getMessage(), type);
+        }
+    }
+}
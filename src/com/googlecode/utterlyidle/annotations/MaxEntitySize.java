@@ -0,0 +1,11 @@
+package com.googlecode.utterlyidle.annotations;
+
+/**
+ * The most bytes the request entity may have; bigger requests get a 413 before the body is all read.
+ */
+@java.lang.annotation.Inherited
+@java.lang.annotation.Target({java.lang.annotation.ElementType.TYPE, java.lang.annotation.ElementType.METHOD})
+@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+public @interface MaxEntitySize {
+    long value();
+}
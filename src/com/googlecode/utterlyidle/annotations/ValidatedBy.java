@@ -0,0 +1,13 @@
+package com.googlecode.utterlyidle.annotations;
+
+import com.googlecode.utterlyidle.Validator;
+
+/**
+ * Lets ValidatorHandler answer If-None-Match and If-Modified-Since with a 304 without calling the resource method.
+ */
+@java.lang.annotation.Inherited
+@java.lang.annotation.Target({java.lang.annotation.ElementType.TYPE, java.lang.annotation.ElementType.METHOD})
+@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+public @interface ValidatedBy {
+    Class<? extends Validator> value();
+}
@@ -0,0 +1,175 @@
+package com.googlecode.utterlyidle.bindings;
+
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.utterlyidle.Binding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.UriTemplate.trimSlashes;
+import static com.googlecode.utterlyidle.annotations.HttpMethod.ANY;
+
+/**
+ * Indexes bindings by the literal and single parameter segments at the start of their uri template.
+ *
+ * Templates are walked until the first segment that is neither a literal nor a plain {param}, the
+ * binding is then stored in the method table of that node. Looking up a path returns every binding
+ * stored on a node visited by the path (in registration order) that really matches the path, so
+ * the trie only ever narrows down the candidates that are checked against the full template.
+ */
+public class BindingTrie {
+    private final Node root = new Node();
+    private int registered = 0;
+
+    public static BindingTrie bindingTrie(Iterable<? extends Binding> bindings) {
+        return new BindingTrie().add(bindings);
+    }
+
+    public BindingTrie add(Iterable<? extends Binding> bindings) {
+        for (Binding binding : bindings) add(binding);
+        return this;
+    }
+
+    public synchronized BindingTrie add(Binding binding) {
+        Node node = root;
+        for (String segment : templateSegments(binding.uriTemplate().toString())) {
+            if (isParameter(segment)) node = node.wildcard();
+            else if (isLiteral(segment)) node = node.literal(segment);
+            else break;
+        }
+        node.add(new Route(registered++, binding));
+        return this;
+    }
+
+    public Sequence<Binding> matches(String path) {
+        return matches(path, null);
+    }
+
+    public Sequence<Binding> matches(String path, String method) {
+        List<Route> routes = new ArrayList<Route>();
+        collect(root, pathSegments(path), 0, method == null ? null : method.toUpperCase(), routes);
+        if (routes.isEmpty()) return Sequences.empty();
+        Collections.sort(routes, Route.ORDER);
+        List<Binding> result = new ArrayList<Binding>(routes.size());
+        for (Route route : routes) {
+            if (route.binding.uriTemplate().matches(path)) result.add(route.binding);
+        }
+        return sequence(result);
+    }
+
+    private static void collect(Node node, String[] segments, int index, String method, List<Route> routes) {
+        node.collect(method, routes);
+        if (index == segments.length) return;
+        String segment = segments[index];
+        Node literal = node.literals.get(segment);
+        if (literal != null) collect(literal, segments, index + 1, method, routes);
+        Node wildcard = node.wildcard;
+        if (wildcard != null && !segment.isEmpty()) collect(wildcard, segments, index + 1, method, routes);
+    }
+
+    static String[] pathSegments(String path) {
+        String trimmed = trimSlashes(path);
+        if (trimmed.isEmpty()) return new String[0];
+        List<String> segments = new ArrayList<String>();
+        int start = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (trimmed.charAt(i) == '/') {
+                segments.add(trimmed.substring(start, i));
+                start = i + 1;
+            }
+        }
+        segments.add(trimmed.substring(start));
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    static List<String> templateSegments(String template) {
+        List<String> segments = new ArrayList<String>();
+        if (template.isEmpty()) return segments;
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '{') depth++;
+            else if (c == '}') depth = Math.max(0, depth - 1);
+            else if (c == '/' && depth == 0) {
+                segments.add(template.substring(start, i));
+                start = i + 1;
+            }
+        }
+        segments.add(template.substring(start));
+        return segments;
+    }
+
+    private static boolean isLiteral(String segment) {
+        return segment.indexOf('{') == -1 && segment.indexOf('}') == -1;
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 &&
+                segment.charAt(0) == '{' &&
+                segment.indexOf('}') == segment.length() - 1 &&
+                segment.indexOf(':') == -1 &&
+                segment.indexOf('{', 1) == -1;
+    }
+
+    private static class Node {
+        private final ConcurrentMap<String, Node> literals = new ConcurrentHashMap<String, Node>();
+        private final ConcurrentMap<String, List<Route>> methods = new ConcurrentHashMap<String, List<Route>>();
+        private volatile Node wildcard;
+
+        private Node literal(String segment) {
+            Node node = literals.get(segment);
+            if (node == null) {
+                node = new Node();
+                literals.put(segment, node);
+            }
+            return node;
+        }
+
+        private Node wildcard() {
+            if (wildcard == null) wildcard = new Node();
+            return wildcard;
+        }
+
+        private void add(Route route) {
+            String method = route.binding.httpMethod().toUpperCase();
+            List<Route> routes = methods.get(method);
+            if (routes == null) {
+                routes = new CopyOnWriteArrayList<Route>();
+                methods.put(method, routes);
+            }
+            routes.add(route);
+        }
+
+        private void collect(String method, List<Route> result) {
+            if (methods.isEmpty()) return;
+            if (method == null) {
+                for (List<Route> routes : methods.values()) result.addAll(routes);
+                return;
+            }
+            List<Route> routes = methods.get(method);
+            if (routes != null) result.addAll(routes);
+            if (method.equals(ANY)) return;
+            List<Route> any = methods.get(ANY);
+            if (any != null) result.addAll(any);
+        }
+    }
+
+    private static class Route {
+        private static final Comparator<Route> ORDER = (a, b) -> Integer.compare(a.order, b.order);
+        private final int order;
+        private final Binding binding;
+
+        private Route(int order, Binding binding) {
+            this.order = order;
+            this.binding = binding;
+        }
+    }
+}
@@ -12,6 +12,9 @@ import com.googlecode.utterlyidle.MatchFailure;
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Status;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.googlecode.totallylazy.Left.left;
 import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.Right.right;
@@ -20,7 +23,7 @@ import static com.googlecode.utterlyidle.ConsumesMimeMatcher.contentMatches;
 import static com.googlecode.utterlyidle.MatchFailure.matchFailure;
 import static com.googlecode.utterlyidle.MatchQuality.matchQuality;
 import static com.googlecode.utterlyidle.MethodMatcher.methodMatches;
-import static com.googlecode.utterlyidle.ParametersExtractor.parametersMatches;
+import static com.googlecode.utterlyidle.ParametersExtractor.parametersExtractor;
 import static com.googlecode.utterlyidle.PathMatcher.pathMatches;
 import static com.googlecode.utterlyidle.ProducesMimeMatcher.producesMatches;
 
@@ -28,11 +31,17 @@ public class DefaultBindingMatcher implements BindingMatcher {
     private final Bindings bindings;
     private final Application application;
     private final ExceptionLogger logger;
+    private final ExtractedArguments arguments;
 
     public DefaultBindingMatcher(Bindings bindings, Application application, final ExceptionLogger logger) {
+        this(bindings, application, logger, new ExtractedArguments());
+    }
+
+    public DefaultBindingMatcher(Bindings bindings, Application application, final ExceptionLogger logger, final ExtractedArguments arguments) {
         this.bindings = bindings;
         this.application = application;
         this.logger = logger;
+        this.arguments = arguments;
     }
 
     @Override
@@ -46,19 +55,41 @@ public class DefaultBindingMatcher implements BindingMatcher {
                     pair(pathMatches(request), Status.NOT_FOUND),
                     pair(methodMatches(request), Status.METHOD_NOT_ALLOWED),
                     pair(contentMatches(request), Status.UNSUPPORTED_MEDIA_TYPE),
-                    pair(producesMatches(request), Status.NOT_ACCEPTABLE),
-                    pair(parametersMatches(request, application, logger), Status.UNSATISFIABLE_PARAMETERS)
+                    pair(producesMatches(request), Status.NOT_ACCEPTABLE)
             );
     }
 
+    /**
+     * Each candidate's arguments are extracted once, and those of the chosen binding are recorded so they are not
+     * extracted again when it is invoked.
+     */
     private Either<MatchFailure, Binding> bestMatch(Request request, Either<MatchFailure, Sequence<Binding>> failureOrBindings) {
         if (failureOrBindings.isLeft())
             return left(failureOrBindings.left());
-        return right(findBestMatch(request, failureOrBindings.right()));
+        Sequence<Binding> candidates = failureOrBindings.right();
+        List<Binding> satisfied = new ArrayList<Binding>();
+        List<Object[]> values = new ArrayList<Object[]>();
+        for (Binding candidate : candidates) {
+            for (Object[] value : parametersExtractor(candidate, application, logger).extractIfPossible(request)) {
+                satisfied.add(candidate);
+                values.add(value);
+            }
+        }
+        if (satisfied.isEmpty()) return left(matchFailure(Status.UNSATISFIABLE_PARAMETERS, candidates));
+        Binding binding = findBestMatch(request, sequence(satisfied));
+        arguments.record(request, binding, values.get(indexOf(satisfied, binding)));
+        return right(binding);
     }
 
     private Binding findBestMatch(Request request, final Sequence<Binding> bindings) {
-        return bindings.sortBy(matchQuality(request)).head();
+        return matchQuality(request).best(bindings).get();
+    }
+
+    private static int indexOf(List<Binding> bindings, Binding binding) {
+        for (int i = 0; i < bindings.size(); i++) {
+            if (bindings.get(i) == binding) return i;
+        }
+        throw new IllegalStateException(binding + " was not one of the candidates");
     }
 
     @SafeVarargs
@@ -66,7 +97,7 @@ public class DefaultBindingMatcher implements BindingMatcher {
         Sequence<Binding> activators = sequence(bindings);
         for (Pair<? extends Predicate<Binding>, Status> pair : filterAndResult) {
             Sequence<Binding> matchesSoFar = activators;
-            activators = activators.filter(pair.first());
+            activators = activators.filter(pair.first()).realise();
             if (activators.isEmpty()) {
                 return left(matchFailure(pair.second(), matchesSoFar));
             }
@@ -0,0 +1,36 @@
+package com.googlecode.utterlyidle.bindings;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.Request;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.option;
+import static com.googlecode.totallylazy.Option.some;
+
+/**
+ * Request scoped holder for the binding the BindingMatcher chose and the arguments it already extracted for it,
+ * so neither the match nor the extraction has to be repeated later in the same request.
+ */
+public class ExtractedArguments {
+    private Request request;
+    private Binding binding;
+    private Object[] arguments;
+
+    public ExtractedArguments record(Request request, Binding binding, Object[] arguments) {
+        this.request = request;
+        this.binding = binding;
+        this.arguments = arguments;
+        return this;
+    }
+
+    public Option<Binding> binding(Request request) {
+        if (this.request == request) return option(binding);
+        return none();
+    }
+
+    public Option<Object[]> arguments(Request request, Binding binding) {
+        if (this.request == request && this.binding == binding) return some(arguments);
+        return none();
+    }
+}
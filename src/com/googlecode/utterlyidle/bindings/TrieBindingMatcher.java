@@ -0,0 +1,111 @@
+package com.googlecode.utterlyidle.bindings;
+
+import com.googlecode.totallylazy.Either;
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.predicates.Predicate;
+import com.googlecode.utterlyidle.Application;
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.Bindings;
+import com.googlecode.utterlyidle.ExceptionLogger;
+import com.googlecode.utterlyidle.MatchFailure;
+import com.googlecode.utterlyidle.RegisteredResources;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.googlecode.totallylazy.Left.left;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Right.right;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.ConsumesMimeMatcher.contentMatches;
+import static com.googlecode.utterlyidle.MatchFailure.matchFailure;
+import static com.googlecode.utterlyidle.MatchQuality.matchQuality;
+import static com.googlecode.utterlyidle.ParametersExtractor.parametersExtractor;
+import static com.googlecode.utterlyidle.ProducesMimeMatcher.producesMatches;
+
+public class TrieBindingMatcher implements BindingMatcher {
+    private final Bindings bindings;
+    private final BindingTrie trie;
+    private final BindingMatcher fallback;
+    private final Application application;
+    private final ExceptionLogger logger;
+    private final ExtractedArguments arguments;
+
+    /**
+     * Only RegisteredResources keeps a trie that every request shares, so any other Bindings is left to the
+     * DefaultBindingMatcher rather than having a trie built for it on each request.
+     */
+    public TrieBindingMatcher(Bindings bindings, Application application, final ExceptionLogger logger, final ExtractedArguments arguments) {
+        this.bindings = bindings;
+        this.arguments = arguments;
+        this.trie = bindings instanceof RegisteredResources ? ((RegisteredResources) bindings).trie() : null;
+        this.fallback = trie == null ? new DefaultBindingMatcher(bindings, application, logger, arguments) : null;
+        this.application = application;
+        this.logger = logger;
+    }
+
+    @Override
+    public Either<MatchFailure, Binding> match(Request request) {
+        if (fallback != null) return fallback.match(request);
+        Either<MatchFailure, Sequence<Binding>> failureOrBindings = matchingBindings(request);
+        if (failureOrBindings.isLeft())
+            return left(failureOrBindings.left());
+        return bestMatch(request, failureOrBindings.right());
+    }
+
+    private Either<MatchFailure, Sequence<Binding>> matchingBindings(Request request) {
+        String path = request.uri().path();
+        Sequence<Binding> matchesPathAndMethod = trie.matches(path, request.method());
+        if (matchesPathAndMethod.isEmpty()) {
+            Sequence<Binding> matchesPath = trie.matches(path);
+            if (matchesPath.isEmpty()) return left(matchFailure(Status.NOT_FOUND, sequence(bindings)));
+            return left(matchFailure(Status.METHOD_NOT_ALLOWED, matchesPath));
+        }
+        return filter(matchesPathAndMethod,
+                pair(contentMatches(request), Status.UNSUPPORTED_MEDIA_TYPE),
+                pair(producesMatches(request), Status.NOT_ACCEPTABLE)
+        );
+    }
+
+    private Either<MatchFailure, Binding> bestMatch(Request request, Sequence<Binding> candidates) {
+        List<Binding> satisfied = new ArrayList<Binding>();
+        List<Object[]> values = new ArrayList<Object[]>();
+        for (Binding candidate : candidates) {
+            for (Object[] value : parametersExtractor(candidate, application, logger).extractIfPossible(request)) {
+                satisfied.add(candidate);
+                values.add(value);
+            }
+        }
+        if (satisfied.isEmpty()) return left(matchFailure(Status.UNSATISFIABLE_PARAMETERS, candidates));
+        Binding binding = findBestMatch(request, sequence(satisfied));
+        arguments.record(request, binding, values.get(indexOf(satisfied, binding)));
+        return right(binding);
+    }
+
+    private Binding findBestMatch(Request request, final Sequence<Binding> bindings) {
+        return matchQuality(request).best(bindings).get();
+    }
+
+    private static int indexOf(List<Binding> bindings, Binding binding) {
+        for (int i = 0; i < bindings.size(); i++) {
+            if (bindings.get(i) == binding) return i;
+        }
+        throw new IllegalStateException(binding + " was not one of the candidates");
+    }
+
+    @SafeVarargs
+    private final Either<MatchFailure, Sequence<Binding>> filter(Sequence<Binding> candidates, Pair<? extends Predicate<Binding>, Status>... filterAndResult) {
+        Sequence<Binding> activators = candidates;
+        for (Pair<? extends Predicate<Binding>, Status> pair : filterAndResult) {
+            Sequence<Binding> matchesSoFar = activators;
+            activators = activators.filter(pair.first()).realise();
+            if (activators.isEmpty()) {
+                return left(matchFailure(pair.second(), matchesSoFar));
+            }
+        }
+        return right(activators);
+    }
+}
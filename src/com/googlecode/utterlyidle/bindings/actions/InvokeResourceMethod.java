@@ -1,46 +1,48 @@
 package com.googlecode.utterlyidle.bindings.actions;
 
+import com.googlecode.totallylazy.Option;
 import com.googlecode.totallylazy.Sequences;
 import com.googlecode.utterlyidle.Application;
 import com.googlecode.utterlyidle.Binding;
 import com.googlecode.utterlyidle.ExceptionLogger;
 import com.googlecode.utterlyidle.MatchedResource;
-import com.googlecode.utterlyidle.ParametersExtractor;
 import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.bindings.ExtractedArguments;
 import com.googlecode.utterlyidle.bindings.MatchedBinding;
 import com.googlecode.yadic.Container;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
-import static com.googlecode.totallylazy.Exceptions.toException;
+import static com.googlecode.utterlyidle.ParametersExtractor.parametersExtractor;
+import static com.googlecode.utterlyidle.bindings.actions.MethodInvoker.constructors.methodInvoker;
 
 public class InvokeResourceMethod implements Action {
     private final Method method;
+    private final MethodInvoker invoker;
+    private final MatchedResource matchedResource;
 
     public InvokeResourceMethod(Method method) {
+        this(method, method == null ? null : methodInvoker(method));
+    }
+
+    public InvokeResourceMethod(Method method, MethodInvoker invoker) {
         if(method==null)
             throw new IllegalArgumentException("method cannot be null");
         this.method = method;
+        this.invoker = invoker;
+        this.matchedResource = new MatchedResource(method.getDeclaringClass());
     }
 
     public Object invoke(Container container) throws Exception {
         Request request = container.get(Request.class);
         Application application = container.get(Application.class);
         Binding binding = container.get(MatchedBinding.class).value();
-        try {
-            Class<?> declaringClass = method.getDeclaringClass();
-
-            registerMatchedResource(container, declaringClass);
-
-            Object resourceInstance = container.get(declaringClass);
-            Object[] arguments = new ParametersExtractor(binding.uriTemplate(), application, binding.parameters(), container.get(ExceptionLogger.class)).extract(request);
-            return method.isVarArgs()
-                    ? method.invoke(resourceInstance, (Object) arguments)
-                    : method.invoke(resourceInstance, arguments);
-        } catch (InvocationTargetException e) {
-            throw toException(e.getCause());
-        }
+
+        registerMatchedResource(container);
+
+        Object resourceInstance = container.get(method.getDeclaringClass());
+        Object[] arguments = arguments(container, request, application, binding);
+        return invoker.invoke(resourceInstance, arguments);
     }
 
     @Override
@@ -51,9 +53,20 @@ public class InvokeResourceMethod implements Action {
                 .safeCast(ActionMetaData.class);
     }
 
-    private void registerMatchedResource(Container container, Class<?> declaringClass) {
-        if (container.contains(MatchedResource.class)) container.remove(MatchedResource.class);
-        container.addInstance(MatchedResource.class, new MatchedResource(declaringClass));
+    private Object[] arguments(Container container, Request request, Application application, Binding binding) {
+        if (container.contains(ExtractedArguments.class)) {
+            Option<Object[]> extracted = container.get(ExtractedArguments.class).arguments(request, binding);
+            if (!extracted.isEmpty()) return extracted.get();
+        }
+        return parametersExtractor(binding, application, container.get(ExceptionLogger.class)).extract(request);
+    }
+
+    private void registerMatchedResource(Container container) {
+        if (container.contains(MatchedResource.class)) {
+            if (container.get(MatchedResource.class) == matchedResource) return;
+            container.remove(MatchedResource.class);
+        }
+        container.addInstance(MatchedResource.class, matchedResource);
     }
 
     @Override
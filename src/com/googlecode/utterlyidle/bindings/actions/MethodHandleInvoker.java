@@ -0,0 +1,63 @@
+package com.googlecode.utterlyidle.bindings.actions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static com.googlecode.totallylazy.Exceptions.toException;
+
+/**
+ * Invokes a method through a MethodHandle adapted once to (Object instance, Object[] arguments)Object,
+ * so each call is a single invokeExact without any reflective access checks or argument boxing into a new array.
+ */
+public class MethodHandleInvoker implements MethodInvoker {
+    private final Method method;
+    private final MethodHandle handle;
+
+    public MethodHandleInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.handle = adapt(method, handle);
+    }
+
+    private static MethodHandle adapt(Method method, MethodHandle handle) {
+        int arguments = method.getParameterCount();
+        MethodHandle withInstance = Modifier.isStatic(method.getModifiers())
+                ? MethodHandles.dropArguments(handle, 0, Object.class)
+                : handle;
+        return withInstance.
+                asType(MethodType.genericMethodType(arguments + 1)).
+                asSpreader(Object[].class, arguments);
+    }
+
+    /**
+     * Arguments that do not fit the parameters fail with IllegalArgumentException, as they do with Method.invoke,
+     * rather than with the NullPointerException or ClassCastException the handle's unboxing throws.
+     */
+    @Override
+    public Object invoke(Object instance, Object[] arguments) throws Exception {
+        try {
+            return (Object) handle.invokeExact(instance, arguments);
+        } catch (NullPointerException | ClassCastException e) {
+            if (fits(arguments)) throw e;
+            throw new IllegalArgumentException("argument type mismatch", e);
+        } catch (Throwable e) {
+            throw toException(e);
+        }
+    }
+
+    private boolean fits(Object[] arguments) {
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = MethodType.methodType(types[i]).wrap().returnType();
+            if (arguments[i] == null ? types[i].isPrimitive() : !type.isInstance(arguments[i])) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return method.toString();
+    }
+}
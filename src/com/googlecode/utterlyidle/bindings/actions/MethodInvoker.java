@@ -0,0 +1,31 @@
+package com.googlecode.utterlyidle.bindings.actions;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+public interface MethodInvoker {
+    Object invoke(Object instance, Object[] arguments) throws Exception;
+
+    class constructors {
+        /**
+         * Binds the method to a MethodHandle when it can, falling back to reflection for varargs methods
+         * or methods the lookup is not allowed to see.
+         */
+        public static MethodInvoker methodInvoker(Method method) {
+            if (method.isVarArgs()) return reflectiveInvoker(method);
+            try {
+                return methodHandleInvoker(method);
+            } catch (IllegalAccessException e) {
+                return reflectiveInvoker(method);
+            }
+        }
+
+        public static MethodInvoker reflectiveInvoker(Method method) {
+            return new ReflectiveMethodInvoker(method);
+        }
+
+        public static MethodInvoker methodHandleInvoker(Method method) throws IllegalAccessException {
+            return new MethodHandleInvoker(method, MethodHandles.lookup().unreflect(method));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.googlecode.utterlyidle.bindings.actions;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static com.googlecode.totallylazy.Exceptions.toException;
+
+public class ReflectiveMethodInvoker implements MethodInvoker {
+    private final Method method;
+
+    public ReflectiveMethodInvoker(Method method) {
+        this.method = method;
+    }
+
+    @Override
+    public Object invoke(Object instance, Object[] arguments) throws Exception {
+        try {
+            return method.isVarArgs()
+                    ? method.invoke(instance, (Object) arguments)
+                    : method.invoke(instance, arguments);
+        } catch (InvocationTargetException e) {
+            throw toException(e.getCause());
+        }
+    }
+}
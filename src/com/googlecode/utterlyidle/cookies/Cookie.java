@@ -2,6 +2,7 @@ package com.googlecode.utterlyidle.cookies;
 
 import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.functions.Lazy;
 import com.googlecode.utterlyidle.Rfc2616;
 
 import java.util.Date;
@@ -27,6 +28,14 @@ public class Cookie extends Pair<String, String> {
         this.attributes = sequence(attributes);
     }
 
+    /**
+     * A cookie cut out of a header whose value is only worked out when it is read.
+     */
+    Cookie(String name, Lazy<String> value, Sequence<CookieAttribute> attributes) {
+        super(() -> name, value::apply);
+        this.attributes = attributes;
+    }
+
     public String name() {
         return first();
     }
@@ -1,29 +1,35 @@
 package com.googlecode.utterlyidle.cookies;
 
 import com.googlecode.totallylazy.Option;
-import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Sequence;
-import com.googlecode.totallylazy.functions.Callables;
-import com.googlecode.totallylazy.functions.Function1;
-import com.googlecode.totallylazy.predicates.Predicate;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.functions.Lazy;
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
-import com.googlecode.utterlyidle.Rfc2616;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.totallylazy.Option.some;
-import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.Sequences.flatten;
-import static com.googlecode.totallylazy.regex.Regex.regex;
+import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.utterlyidle.HttpHeaders.COOKIE;
 import static com.googlecode.utterlyidle.HttpHeaders.SET_COOKIE;
-import static com.googlecode.utterlyidle.cookies.Cookie.cookie;
 import static com.googlecode.utterlyidle.cookies.CookieAttribute.cookieAttribute;
 
+/**
+ * Splits cookie headers in one pass over the string. Names are cut out straight away but each value is only
+ * unquoted and decoded when it is first read, so looking up one cookie does not pay for all of them.
+ */
 public class CookieCutter {
 
     public static Sequence<Cookie> cookies(Request request) {
-        return request.headers().getValues(COOKIE).flatMap(CookieCutter::parseRequestHeader);
+        return cookies(request, CookieEncoding.NONE);
+    }
+
+    public static Sequence<Cookie> cookies(Request request, CookieEncoding encoding) {
+        return request.headers().getValues(COOKIE).flatMap(value -> parseRequestHeader(value, encoding));
     }
 
     public static Sequence<Cookie> cookies(Response response) {
@@ -31,41 +37,87 @@ public class CookieCutter {
     }
 
     public static Sequence<Cookie> parseRequestHeader(String value) {
-        return parseNameValuePairs(value).map(buildCookie());
+        return parseRequestHeader(value, CookieEncoding.NONE);
+    }
+
+    public static Sequence<Cookie> parseRequestHeader(String header, CookieEncoding encoding) {
+        List<Cookie> cookies = new ArrayList<Cookie>();
+        for (int start = skipWhitespace(header, 0); start < header.length(); start = skipWhitespace(header, next(header, start))) {
+            int end = end(header, start);
+            int equals = equals(header, start, end);
+            if (equals != -1) cookies.add(new Cookie(header.substring(start, equals), value(header, equals + 1, end, encoding), Sequences.<CookieAttribute>empty()));
+        }
+        return sequence(cookies);
     }
 
-    public static Option<Cookie> parseResponseHeader(String value) {
-        return buildCookieWithAttributes(parseNameValuePairs(value));
+    public static Option<Cookie> parseResponseHeader(String header) {
+        String name = null;
+        Lazy<String> value = null;
+        List<CookieAttribute> attributes = new ArrayList<CookieAttribute>();
+        for (int start = skipWhitespace(header, 0); start < header.length(); start = skipWhitespace(header, next(header, start))) {
+            int end = end(header, start);
+            int equals = equals(header, start, end);
+            if (equals == -1) continue;
+            if (name == null) {
+                name = header.substring(start, equals);
+                value = value(header, equals + 1, end, CookieEncoding.NONE);
+            } else {
+                attributes.add(cookieAttribute(header.substring(start, equals), unquote(header, equals + 1, end)));
+            }
+        }
+        if (name == null) return none();
+        return some(new Cookie(name, value, sequence(attributes)));
     }
 
-    private static Function1<Pair<String, String>, Cookie> buildCookie() {
-        return header -> cookie(header.first(), header.second());
+    private static Lazy<String> value(final String header, final int start, final int end, final CookieEncoding encoding) {
+        return new Lazy<String>() {
+            @Override
+            protected String get() {
+                return decode(encoding, unquote(header, start, end));
+            }
+        };
     }
 
-    private static Option<Cookie> buildCookieWithAttributes(Sequence<Pair<String, String>> pairs) {
-        if(pairs.isEmpty()) {
-            return none();
-        } else {
-            return some(cookie(pairs.head().first(), pairs.head().second(), attributes(pairs.tail()).toArray(new CookieAttribute[pairs.tail().size()])));
+    private static String decode(CookieEncoding encoding, String value) {
+        if (encoding == CookieEncoding.NONE) return value;
+        try {
+            return encoding.decode(value);
+        } catch (Exception e) {
+            return value;
         }
     }
 
-    private static Sequence<CookieAttribute> attributes(Sequence<Pair<String, String>> attributes) {
-        return attributes.map(pair -> cookieAttribute(pair.first(), pair.second()));
+    /**
+     * The same as Rfc2616.toUnquotedString on header.substring(start, end) without the regexes.
+     */
+    static String unquote(String header, int start, int end) {
+        if (start < end && header.charAt(start) == '"') start++;
+        if (end > start && header.charAt(end - 1) == '"') end--;
+        String value = header.substring(start, end);
+        return value.indexOf("\\\"") == -1 ? value : value.replace("\\\"", "\"");
     }
 
-    private static Sequence<Pair<String, String>> parseNameValuePairs(String header) {
-        return regex("\\s*;\\s*").split(header)
-                .filter(correctlyFormed())
-                .map(splitOnFirst("="))
-                .map(Callables.<String, String, String>second(Rfc2616::toUnquotedString));
+    private static int next(String header, int start) {
+        int semicolon = header.indexOf(';', start);
+        return semicolon == -1 ? header.length() : semicolon + 1;
     }
 
-    private static Predicate<? super String> correctlyFormed() {
-        return cookie -> cookie.contains("=");
+    private static int end(String header, int start) {
+        int semicolon = header.indexOf(';', start);
+        int end = semicolon == -1 ? header.length() : semicolon;
+        while (end > start && Character.isWhitespace(header.charAt(end - 1))) end--;
+        return end;
+    }
+
+    private static int equals(String header, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (header.charAt(i) == '=') return i;
+        }
+        return -1;
     }
 
-    private static Function1<? super String, Pair<String, String>> splitOnFirst(final String separator) {
-        return cookie -> pair(cookie.substring(0, cookie.indexOf(separator)), cookie.substring(cookie.indexOf(separator) + 1, cookie.length()));
+    private static int skipWhitespace(String header, int start) {
+        while (start < header.length() && Character.isWhitespace(header.charAt(start))) start++;
+        return start;
     }
 }
@@ -12,10 +12,12 @@ import static com.googlecode.utterlyidle.cookies.CookieParameters.pairs;
 
 public class EncodingCookieHandler implements HttpHandler {
     private final HttpHandler delegate;
+    private final CookieEncoding encoding;
     private final CookieEncoder encoder;
 
     public EncodingCookieHandler(HttpHandler delegate, CookieEncoding encoding) {
         this.delegate = delegate;
+        this.encoding = encoding;
         this.encoder = cookieEncoder(encoding);
     }
 
@@ -29,6 +31,6 @@ public class EncodingCookieHandler implements HttpHandler {
     }
 
     private Request decode(Request request) {
-        return Functions.modify(request, cookie(pairs(cookies(request).map(encoder::decode))));
+        return Functions.modify(request, cookie(pairs(cookies(request, encoding))));
     }
 }
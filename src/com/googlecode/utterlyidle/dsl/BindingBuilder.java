@@ -18,6 +18,7 @@ import com.googlecode.utterlyidle.Parameters;
 import com.googlecode.utterlyidle.PathParameters;
 import com.googlecode.utterlyidle.QueryParameters;
 import com.googlecode.utterlyidle.UriTemplate;
+import com.googlecode.utterlyidle.Validator;
 import com.googlecode.utterlyidle.annotations.HttpMethod;
 import com.googlecode.utterlyidle.annotations.View;
 import com.googlecode.utterlyidle.bindings.actions.Action;
@@ -45,6 +46,8 @@ public class BindingBuilder implements Callable<Binding> {
     private Sequence<Pair<Type,Option<Parameter>>> typesWithParameter = Sequences.empty();
     private boolean hidden = false;
     private View view;
+    private Option<Long> maxEntitySize = none();
+    private Option<Class<? extends Validator>> validator = none();
 
 
     public static BindingBuilder modify(Binding binding) {
@@ -57,7 +60,9 @@ public class BindingBuilder implements Callable<Binding> {
                 priority(binding.priority()).
                 parameters(binding.parameters()).
                 hidden(binding.hidden()).
-                view(binding.view());
+                view(binding.view()).
+                maxEntitySize(binding.maxEntitySize()).
+                validatedBy(binding.validator());
     }
 
     public Binding call() throws Exception {
@@ -65,7 +70,7 @@ public class BindingBuilder implements Callable<Binding> {
     }
 
     public Binding build() {
-        return new Binding(action, uriTemplate, httpMethod, consumes, produces, sequence(typesWithParameter), priority, hidden, view);
+        return new Binding(action, uriTemplate, httpMethod, consumes, produces, sequence(typesWithParameter), priority, hidden, view, maxEntitySize, validator);
     }
 
     public BindingBuilder path(String value) {
@@ -82,6 +87,24 @@ public class BindingBuilder implements Callable<Binding> {
         return this;
     }
 
+    public BindingBuilder maxEntitySize(long value) {
+        return maxEntitySize(some(value));
+    }
+
+    private BindingBuilder maxEntitySize(Option<Long> value) {
+        maxEntitySize = value;
+        return this;
+    }
+
+    public BindingBuilder validatedBy(Class<? extends Validator> value) {
+        return validatedBy(Option.<Class<? extends Validator>>some(value));
+    }
+
+    private BindingBuilder validatedBy(Option<Class<? extends Validator>> value) {
+        validator = value;
+        return this;
+    }
+
     public BindingBuilder consumes(Iterable<String> values) {
         consumes = sequence(values);
         return this;
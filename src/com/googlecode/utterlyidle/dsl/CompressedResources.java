@@ -0,0 +1,108 @@
+package com.googlecode.utterlyidle.dsl;
+
+import com.googlecode.totallylazy.io.Uri;
+import com.googlecode.utterlyidle.HttpHandler;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.Status;
+import com.googlecode.utterlyidle.UtterlyIdleProperties;
+import com.googlecode.utterlyidle.handlers.GzipHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static com.googlecode.totallylazy.Closeables.safeClose;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.io.Uri.uri;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_ENCODING;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LENGTH;
+import static com.googlecode.utterlyidle.HttpHeaders.LAST_MODIFIED;
+import static com.googlecode.utterlyidle.handlers.GZipPolicy.gZipPolicy;
+import static com.googlecode.utterlyidle.handlers.GzipHandler.GZIP;
+import static java.lang.Integer.parseInt;
+import static java.lang.String.valueOf;
+
+/**
+ * Gzipped variants of static resources, so each asset is compressed once rather than on every request.
+ *
+ * A precompressed sibling (app.js.gz next to app.js) is used when there is one, otherwise the resource is compressed
+ * here. Either way the bytes are kept in a cache bounded by their total size and keyed by the resource url and its
+ * last modified time, so a changed file is picked up again.
+ */
+public class CompressedResources {
+    public static final String MAXIMUM_SIZE = "static.compressed.cache.size";
+    public static final int DEFAULT_MAXIMUM_SIZE = 8 * 1024 * 1024;
+    public static final String SIBLING_EXTENSION = ".gz";
+    private final Map<String, byte[]> cache = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+    private final int maximumSize;
+    private long size;
+
+    public CompressedResources(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public CompressedResources(UtterlyIdleProperties properties) {
+        this(parseInt(properties.getProperty(MAXIMUM_SIZE, valueOf(DEFAULT_MAXIMUM_SIZE))));
+    }
+
+    public static CompressedResources compressedResources() {
+        return new CompressedResources(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * The gzipped form of a successful response for the resource at uri. Precompressed siblings too big to cache are
+     * streamed, anything else too big to cache is left for GzipHandler.
+     */
+    public Response gzip(HttpHandler client, Uri uri, Response response) throws Exception {
+        String key = uri + " " + response.header(LAST_MODIFIED).getOrElse("");
+        byte[] cached = get(key);
+        if (cached != null) return compressed(response, cached);
+
+        Response sibling = client.handle(Request.get(uri(uri + SIBLING_EXTENSION)));
+        if (sibling.status().equals(Status.OK)) {
+            if (sibling.entity().length().is(bytes -> bytes > maximumSize)) return compressed(response, sibling.entity().value());
+            return compressed(response, put(key, sibling.entity().toBytes()));
+        }
+        safeClose(sibling.entity());
+
+        if (response.entity().length().is(bytes -> bytes > maximumSize)) return response;
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GzipHandler.gzip(response.entity().writer(), compressed, gZipPolicy().level(Deflater.BEST_COMPRESSION));
+        return compressed(response, put(key, compressed.toByteArray()));
+    }
+
+    private static Response compressed(Response response, Object entity) {
+        if (response.entity().value() != entity) safeClose(response.entity());
+        return response.replaceHeaders(sequence(pair(CONTENT_ENCODING, GZIP), pair(CONTENT_LENGTH, (String) null))).
+                entity(entity);
+    }
+
+    private synchronized byte[] get(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized byte[] put(String key, byte[] compressed) {
+        if (compressed.length > maximumSize) return compressed;
+        byte[] previous = cache.put(key, compressed);
+        if (previous != null) size -= previous.length;
+        size += compressed.length;
+        Iterator<byte[]> eldest = cache.values().iterator();
+        while (size > maximumSize && eldest.hasNext()) {
+            size -= eldest.next().length;
+            eldest.remove();
+        }
+        return compressed;
+    }
+
+    public synchronized int entries() {
+        return cache.size();
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+}
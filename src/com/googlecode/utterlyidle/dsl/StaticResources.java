@@ -11,18 +11,38 @@ import com.googlecode.utterlyidle.handlers.ClientHttpHandler;
 import java.net.URL;
 
 import static com.googlecode.totallylazy.io.Uri.uri;
+import static com.googlecode.utterlyidle.HttpHeaders.ACCEPT_ENCODING;
+import static com.googlecode.utterlyidle.HttpHeaders.VARY;
 import static com.googlecode.utterlyidle.UriTemplate.trimSlashes;
+import static com.googlecode.utterlyidle.dsl.CompressedResources.compressedResources;
+import static com.googlecode.utterlyidle.handlers.GzipHandler.clientAcceptsGZip;
 
 public class StaticResources {
+    private final Request request;
+    private final CompressedResources compressed;
+
+    public StaticResources(Request request, CompressedResources compressed) {
+        this.request = request;
+        this.compressed = compressed;
+    }
+
+    public StaticResources() {
+        this(Request.get(""), compressedResources());
+    }
+
     public Response get(URL baseUrl, String filename) {
         try {
             Uri original = uri(baseUrl).mergePath(trimSlashes(filename));
             Uri normalise = original.removeDotSegments();
             if (!original.equals(normalise)) return Response.response(Status.NOT_FOUND);
             HttpHandler handler = new ClientHttpHandler();
-            return handler.handle(Request.get(original));
+            Response response = handler.handle(Request.get(original));
+            if (!response.status().equals(Status.OK)) return response;
+            Response varying = response.header(VARY, ACCEPT_ENCODING);
+            if (!clientAcceptsGZip(request.headers())) return varying;
+            return compressed.gzip(handler, original, varying);
         } catch (Exception e) {
             throw LazyException.lazyException(e);
         }
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,8 @@ import com.googlecode.utterlyidle.annotations.HttpMethod;
 
 import java.util.Date;
 
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.time.Dates.RFC822;
 import static com.googlecode.utterlyidle.HttpHeaders.CACHE_CONTROL;
 import static com.googlecode.utterlyidle.HttpHeaders.DATE;
@@ -33,15 +35,15 @@ public class CacheControlHandler implements HttpHandler {
         }
 
         if (!cachePolicy.matches(Pair.pair(request, response))) {
-            return response.
-                    header(CACHE_CONTROL, "private, must-revalidate").
-                    header(EXPIRES, "0");
+            return response.replaceHeaders(sequence(
+                    pair(CACHE_CONTROL, "private, must-revalidate"),
+                    pair(EXPIRES, "0")));
         }
 
         Date now = Dates.RFC822().parse(response.header(DATE).get());
         String date = RFC822().format(Seconds.add(now, cachePolicy.value()));
-        return response.
-                header(CACHE_CONTROL, format("public, max-age=%s", cachePolicy.value())).
-                header(EXPIRES, date);
+        return response.replaceHeaders(sequence(
+                pair(CACHE_CONTROL, format("public, max-age=%s", cachePolicy.value())),
+                pair(EXPIRES, date)));
     }
 }
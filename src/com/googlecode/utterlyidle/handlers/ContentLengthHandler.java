@@ -1,5 +1,6 @@
 package com.googlecode.utterlyidle.handlers;
 
+import com.googlecode.totallylazy.Option;
 import com.googlecode.utterlyidle.Entity;
 import com.googlecode.utterlyidle.HeaderParameters;
 import com.googlecode.utterlyidle.HttpHandler;
@@ -7,9 +8,9 @@ import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
 import com.googlecode.utterlyidle.Status;
 
+import static com.googlecode.totallylazy.Option.some;
 import static com.googlecode.totallylazy.numbers.Numbers.greaterThanOrEqualTo;
 import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LENGTH;
-import static com.googlecode.utterlyidle.Parameters.Builder.remove;
 
 public class ContentLengthHandler implements HttpHandler {
     private final HttpHandler httpHandler;
@@ -27,20 +28,20 @@ public class ContentLengthHandler implements HttpHandler {
         Status status = response.status();
 
         if(status.isInformational() || status.equals(Status.NO_CONTENT) || status.equals(Status.NOT_MODIFIED)) {
-            return response.headers(remove(CONTENT_LENGTH)).entity(Entity.empty());
+            return response.create(response.headers().remove(CONTENT_LENGTH), Entity.empty());
         }
         return response.entity().length().fold(response, (acc, value) ->
                 acc.header(CONTENT_LENGTH, value));
     }
 
     public static HeaderParameters setContentLength(Entity entity, HeaderParameters headers) {
-        if(headers.contains(CONTENT_LENGTH)) {
-            byte[] bytes = entity.toBytes();
-            headers.replace(CONTENT_LENGTH, String.valueOf(bytes.length));
+        Option<Integer> length = entity.length();
+        if(headers.contains(CONTENT_LENGTH) && length.isEmpty()) {
+            length = some(entity.toBytes().length);
         }
 
-        if (entity.length().is(greaterThanOrEqualTo(0))) {
-            return headers.replace(CONTENT_LENGTH, String.valueOf(entity.length().get()));
+        if (length.is(greaterThanOrEqualTo(0))) {
+            return headers.replace(CONTENT_LENGTH, String.valueOf(length.get()));
         }
         return headers;
     }
@@ -0,0 +1,43 @@
+package com.googlecode.utterlyidle.handlers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A bounded pool of raw (no zlib header) Deflaters so compressing a response does not set up and tear down native zlib
+ * state every time. Deflaters handed back once the pool is full are ended rather than kept.
+ */
+public class DeflaterPool {
+    public static final int DEFAULT_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+    private static final DeflaterPool DEFAULT = deflaterPool(DEFAULT_SIZE);
+    private final BlockingQueue<Deflater> deflaters;
+
+    private DeflaterPool(int size) {
+        deflaters = new ArrayBlockingQueue<Deflater>(size);
+    }
+
+    public static DeflaterPool deflaterPool(int size) {
+        return new DeflaterPool(size);
+    }
+
+    public static DeflaterPool deflaterPool() {
+        return DEFAULT;
+    }
+
+    public Deflater borrow(int level) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) return new Deflater(level, true);
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) deflater.end();
+    }
+
+    public int idle() {
+        return deflaters.size();
+    }
+}
@@ -0,0 +1,37 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.utterlyidle.EntitySizeLimit;
+import com.googlecode.utterlyidle.EntityTooLargeException;
+import com.googlecode.utterlyidle.HttpHandler;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+
+import static com.googlecode.utterlyidle.MediaType.TEXT_PLAIN;
+import static com.googlecode.utterlyidle.Status.REQUEST_ENTITY_TOO_LARGE;
+
+public class EntitySizeHandler implements HttpHandler {
+    private final HttpHandler httpHandler;
+    private final EntitySizeLimit limit;
+
+    public EntitySizeHandler(HttpHandler httpHandler, EntitySizeLimit limit) {
+        this.httpHandler = httpHandler;
+        this.limit = limit;
+    }
+
+    @Override
+    public Response handle(Request request) throws Exception {
+        final Request limited;
+        try {
+            limited = limit.limit(request);
+        } catch (EntityTooLargeException e) {
+            return entityTooLarge(e);
+        }
+        return httpHandler.handle(limited);
+    }
+
+    public static Response entityTooLarge(EntityTooLargeException e) {
+        return Response.response(REQUEST_ENTITY_TOO_LARGE).
+                contentType(TEXT_PLAIN).
+                entity(e.getMessage());
+    }
+}
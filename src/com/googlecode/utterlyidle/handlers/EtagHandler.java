@@ -1,62 +1,133 @@
 package com.googlecode.utterlyidle.handlers;
 
-import com.googlecode.totallylazy.functions.Function2;
+import com.googlecode.utterlyidle.ByteSlice;
+import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.EntityTag;
+import com.googlecode.utterlyidle.HeaderParameters;
 import com.googlecode.utterlyidle.HttpHandler;
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
 import com.googlecode.utterlyidle.Status;
-import com.googlecode.totallylazy.security.Digest;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.googlecode.totallylazy.Arrays.list;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.cons;
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.utterlyidle.HttpHeaders.CACHE_CONTROL;
-import static com.googlecode.utterlyidle.HttpHeaders.Content_MD5;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LOCATION;
 import static com.googlecode.utterlyidle.HttpHeaders.DATE;
 import static com.googlecode.utterlyidle.HttpHeaders.ETAG;
 import static com.googlecode.utterlyidle.HttpHeaders.EXPIRES;
 import static com.googlecode.utterlyidle.HttpHeaders.IF_NONE_MATCH;
 import static com.googlecode.utterlyidle.HttpHeaders.LAST_MODIFIED;
 import static com.googlecode.utterlyidle.HttpHeaders.SET_COOKIE;
+import static com.googlecode.utterlyidle.HttpHeaders.VARY;
 import static com.googlecode.utterlyidle.Status.NOT_MODIFIED;
 import static com.googlecode.utterlyidle.annotations.HttpMethod.GET;
-import static com.googlecode.totallylazy.security.Digest.md5;
+import static com.googlecode.utterlyidle.handlers.EtagPolicy.etagPolicy;
 
 public class EtagHandler implements HttpHandler {
-    public static final List<String> safeHeaders = new CopyOnWriteArrayList<String>(list(DATE, LAST_MODIFIED, CACHE_CONTROL, EXPIRES, SET_COOKIE));
+    public static final List<String> safeHeaders = new CopyOnWriteArrayList<String>(list(DATE, LAST_MODIFIED, CACHE_CONTROL, EXPIRES, SET_COOKIE, CONTENT_LOCATION, VARY));
     private final HttpHandler httpHandler;
+    private final EtagPolicy policy;
 
-    public EtagHandler(HttpHandler httpHandler) {
+    public EtagHandler(HttpHandler httpHandler, EtagPolicy policy) {
         this.httpHandler = httpHandler;
+        this.policy = policy;
     }
 
+    public EtagHandler(HttpHandler httpHandler) {
+        this(httpHandler, etagPolicy());
+    }
+
+    /**
+     * An ETag the resource already set is used as it is, so its body is never rendered for a 304. Otherwise the body
+     * is hashed as it is written, and kept if it could not be written again; streamed bodies of unknown length are
+     * only hashed when the policy asks for them.
+     */
     @Override
     public Response handle(Request request) throws Exception {
         Response response = httpHandler.handle(request);
-        if (!request.method().equals(GET) || !response.status().equals(Status.OK) || response.entity().length().isEmpty()) {
+        if (!request.method().equals(GET) || !response.status().equals(Status.OK)) {
+            return response;
+        }
+
+        for (String supplied : response.header(ETAG)) {
+            for (EntityTag etag : EntityTag.entityTag(supplied)) {
+                if (!etag.noneMatch(request.headers().getValues(IF_NONE_MATCH))) return notModified(response.headers(), etag);
+            }
+            return response;
+        }
+
+        Entity entity = response.entity();
+        if (entity.length().isEmpty() && !(entity.isStreaming() && policy.matches(pair(request, response)))) {
             return response;
         }
 
-        Digest digest = md5(response.entity().toBytes());
-        String etag = strongEtag(digest);
-        if (etag.equals(request.headers().getValue(IF_NONE_MATCH))) {
-            return copySafeHeaders(response, Response.response(NOT_MODIFIED));
+        EtagHasher.Hash hash = policy.hasher().hash();
+        Response hashed = replayable(entity) ? hash(response, hash) : response.entity(hashBuffered(entity, hash));
+        EntityTag etag = EntityTag.strong(hash.value());
+        if (!etag.noneMatch(request.headers().getValues(IF_NONE_MATCH))) {
+            return notModified(hashed.headers(), etag);
         }
-        return response.header(ETAG, etag).header(Content_MD5, digest.toBase64());
+        return hashed.replaceHeaders(cons(pair(ETAG, etag.toString()), sequence(hash.headers())));
     }
 
-    private Response copySafeHeaders(final Response source, Response destination) {
-        return sequence(safeHeaders).fold(destination, copyFrom(source));
+    /**
+     * Values that can be written again after being hashed; anything else is kept as the bytes it hashed to.
+     */
+    private static boolean replayable(Entity entity) {
+        Object value = entity.value();
+        return entity.isTransferable() && (value instanceof byte[] || value instanceof String || value instanceof ByteSlice ||
+                value instanceof ByteBuffer || value instanceof File);
     }
 
-    private static Function2<Response, String, Response> copyFrom(final Response source) {
-        return (destination, header) -> destination.header(header, source.header(header).getOrNull());
+    private static Response hash(Response response, EtagHasher.Hash hash) throws Exception {
+        response.entity().writer().call(hash);
+        return response;
     }
 
-    private String strongEtag(Digest digest) {
-        return "\"" + digest.toHex() + "\"";
+    private static byte[] hashBuffered(Entity entity, EtagHasher.Hash hash) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        entity.writer().call(new Tee(buffer, hash));
+        return buffer.toByteArray();
     }
 
+    /**
+     * The 304 for a response carrying these headers: its ETag and whichever of the safe headers it has (RFC 7232 4.1).
+     */
+    public static Response notModified(HeaderParameters source, EntityTag etag) {
+        Response destination = Response.response(NOT_MODIFIED).header(ETAG, etag.toString());
+        return destination.replaceHeaders(sequence(safeHeaders).map(header -> pair(header, source.valueOption(header).getOrNull())));
+    }
+
+    private static class Tee extends FilterOutputStream {
+        private final OutputStream hash;
+
+        private Tee(OutputStream out, OutputStream hash) {
+            super(out);
+            this.hash = hash;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            hash.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            hash.write(bytes, offset, length);
+        }
+    }
 }
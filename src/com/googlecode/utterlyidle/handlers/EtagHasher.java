@@ -0,0 +1,112 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.security.Base64;
+
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+
+import static com.googlecode.totallylazy.LazyException.lazyException;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.utterlyidle.HttpHeaders.Content_MD5;
+
+/**
+ * Hashes an entity as it is written so EtagHandler never needs the whole body as one array.
+ */
+public interface EtagHasher {
+    Hash hash();
+
+    abstract class Hash extends OutputStream {
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public abstract void write(byte[] bytes, int offset, int length);
+
+        /**
+         * The opaque part of the ETag, without quotes.
+         */
+        public abstract String value();
+
+        public Iterable<Pair<String, String>> headers() {
+            return Collections.emptyList();
+        }
+    }
+
+    class constructors {
+        /**
+         * 64 bit FNV-1a plus the length; cheap, but not meant to resist deliberate collisions.
+         */
+        public static EtagHasher fnv64() {
+            return Fnv64::new;
+        }
+
+        /**
+         * The hex MD5 of the body, also sent as Content-MD5.
+         */
+        public static EtagHasher md5() {
+            return Md5::new;
+        }
+    }
+
+    class Fnv64 extends Hash {
+        private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long PRIME = 0x100000001b3L;
+        private long hash = OFFSET_BASIS;
+        private long length;
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            long hash = this.hash;
+            for (int i = offset; i < offset + length; i++) {
+                hash = (hash ^ (bytes[i] & 0xff)) * PRIME;
+            }
+            this.hash = hash;
+            this.length += length;
+        }
+
+        @Override
+        public String value() {
+            return String.format("%016x-%x", hash, length);
+        }
+    }
+
+    class Md5 extends Hash {
+        private final MessageDigest digest;
+        private byte[] result;
+
+        public Md5() {
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw lazyException(e);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            digest.update(bytes, offset, length);
+        }
+
+        @Override
+        public String value() {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : result()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        }
+
+        @Override
+        public Iterable<Pair<String, String>> headers() {
+            return Collections.singletonList(pair(Content_MD5, Base64.encode(result())));
+        }
+
+        private byte[] result() {
+            if (result == null) result = digest.digest();
+            return result;
+        }
+    }
+}
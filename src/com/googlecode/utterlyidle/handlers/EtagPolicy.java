@@ -0,0 +1,32 @@
+package com.googlecode.utterlyidle.handlers;
+
+import static com.googlecode.utterlyidle.handlers.EtagHasher.constructors.fnv64;
+
+/**
+ * Which streamed responses EtagHandler should tag as well; they have to be buffered to be hashed, so none are by
+ * default. Bodies whose length is known are always tagged.
+ */
+public class EtagPolicy extends Policy<EtagPolicy> {
+    private EtagHasher hasher = fnv64();
+
+    private EtagPolicy() {
+    }
+
+    public static EtagPolicy etagPolicy() {
+        return new EtagPolicy();
+    }
+
+    public EtagHasher hasher() {
+        return hasher;
+    }
+
+    public EtagPolicy hasher(EtagHasher hasher) {
+        this.hasher = hasher;
+        return self();
+    }
+
+    @Override
+    protected EtagPolicy self() {
+        return this;
+    }
+}
@@ -1,9 +1,11 @@
 package com.googlecode.utterlyidle.handlers;
 
 import com.googlecode.totallylazy.LazyException;
+import com.googlecode.utterlyidle.EntityTooLargeException;
 import com.googlecode.utterlyidle.HttpHandler;
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.Status;
 import com.googlecode.utterlyidle.rendering.ExceptionRenderer;
 
 import java.lang.reflect.InvocationTargetException;
@@ -11,6 +13,7 @@ import java.lang.reflect.InvocationTargetException;
 import static com.googlecode.totallylazy.Debug.trace;
 import static com.googlecode.utterlyidle.MediaType.TEXT_PLAIN;
 import static com.googlecode.utterlyidle.Status.INTERNAL_SERVER_ERROR;
+import static com.googlecode.utterlyidle.Status.REQUEST_ENTITY_TOO_LARGE;
 
 public class ExceptionHandler implements HttpHandler {
 
@@ -36,7 +39,7 @@ public class ExceptionHandler implements HttpHandler {
 
     private Response findAndHandle(Request request, Throwable throwable) {
         trace(throwable);
-        final Response response = Response.response(INTERNAL_SERVER_ERROR).
+        final Response response = Response.response(status(throwable)).
                 contentType(TEXT_PLAIN).
                 entity(throwable);
         try {
@@ -46,4 +49,7 @@ public class ExceptionHandler implements HttpHandler {
         }
     }
 
+    private static Status status(Throwable throwable) {
+        return EntityTooLargeException.isCause(throwable) ? REQUEST_ENTITY_TOO_LARGE : INTERNAL_SERVER_ERROR;
+    }
 }
@@ -1,6 +1,15 @@
 package com.googlecode.utterlyidle.handlers;
 
+import java.util.zip.Deflater;
+
+import static com.googlecode.utterlyidle.handlers.DeflaterPool.deflaterPool;
+
 public class GZipPolicy extends Policy<GZipPolicy> {
+    public static final int DEFAULT_MINIMUM_SIZE = 1;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private int minimumSize = DEFAULT_MINIMUM_SIZE;
+    private DeflaterPool deflaters = deflaterPool();
+
     private GZipPolicy() {
     }
 
@@ -8,6 +17,41 @@ public class GZipPolicy extends Policy<GZipPolicy> {
         return new GZipPolicy();
     }
 
+    public int level() {
+        return level;
+    }
+
+    /**
+     * From Deflater.BEST_SPEED (1) to Deflater.BEST_COMPRESSION (9), or Deflater.DEFAULT_COMPRESSION.
+     */
+    public GZipPolicy level(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION))
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        this.level = level;
+        return self();
+    }
+
+    public int minimumSize() {
+        return minimumSize;
+    }
+
+    /**
+     * Responses with a known length below this many bytes are sent as they are; streamed ones are always compressed.
+     */
+    public GZipPolicy minimumSize(int minimumSize) {
+        this.minimumSize = Math.max(minimumSize, DEFAULT_MINIMUM_SIZE);
+        return self();
+    }
+
+    public DeflaterPool deflaters() {
+        return deflaters;
+    }
+
+    public GZipPolicy deflaters(DeflaterPool deflaters) {
+        this.deflaters = deflaters;
+        return self();
+    }
+
     @Override
     protected GZipPolicy self() {
         return this;
@@ -1,17 +1,22 @@
 package com.googlecode.utterlyidle.handlers;
 
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.functions.Block;
 import com.googlecode.totallylazy.security.GZip;
 import com.googlecode.utterlyidle.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import static com.googlecode.totallylazy.Pair.pair;
-import static com.googlecode.totallylazy.numbers.Numbers.greaterThan;
+import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.utterlyidle.HttpHeaders.*;
 import static com.googlecode.utterlyidle.Parameters.Builder.add;
 
 public class GzipHandler implements HttpHandler {
     public static final String GZIP = "gzip";
+    public static final int MAXIMUM_BUFFERED_LENGTH = 64 * 1024;
     private final HttpHandler httpHandler;
     private final InternalRequestMarker marker;
     private final GZipPolicy gZipPolicy;
@@ -25,16 +30,58 @@ public class GzipHandler implements HttpHandler {
     @Override
     public Response handle(Request request) throws Exception {
         Response response = httpHandler.handle(request);
-        Response result = response.headers(add(VARY, ACCEPT_ENCODING));
+        Response result = variesByEncoding(response.headers()) ? response : response.headers(add(VARY, ACCEPT_ENCODING));
+        Option<Integer> length = response.entity().length();
         if (clientAcceptsGZip(request.headers()) &&
+                !isGZipped(response.headers()) &&
                 !marker.isInternal(request) &&
-                response.entity().length().is(greaterThan(0)) &&
+                (length.isEmpty() || length.get() >= gZipPolicy.minimumSize()) &&
                 gZipPolicy.matches(pair(request, response))) {
-            return result.header(CONTENT_ENCODING, GZIP).entity(GZip.gzip(response.entity().toBytes()));
+            return result.replaceHeaders(sequence(pair(CONTENT_ENCODING, GZIP), pair(CONTENT_LENGTH, (String) null))).
+                    entity(gzip(response.entity(), length));
         }
         return result;
     }
 
+    /**
+     * Small bodies that are already in memory are compressed up front so they keep a Content-Length; anything
+     * streamed or large is compressed as it is written.
+     */
+    private Object gzip(Entity entity, Option<Integer> length) throws Exception {
+        final Block<OutputStream> writer = entity.writer();
+        if (!entity.isStreaming() && !length.isEmpty() && length.get() <= MAXIMUM_BUFFERED_LENGTH) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            gzip(writer, compressed, gZipPolicy);
+            return compressed.toByteArray();
+        }
+        return (StreamingOutput) outputStream -> {
+            try {
+                gzip(writer, outputStream, gZipPolicy);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        };
+    }
+
+    public static void gzip(Block<OutputStream> writer, OutputStream outputStream, GZipPolicy policy) throws Exception {
+        PooledGzipOutputStream gzip = new PooledGzipOutputStream(outputStream, policy.deflaters(), policy.level());
+        try {
+            writer.call(gzip);
+            gzip.finish();
+        } finally {
+            gzip.release();
+        }
+    }
+
+    private static boolean variesByEncoding(HeaderParameters headers) {
+        for (String vary : headers.getValues(VARY)) {
+            if (vary.toLowerCase().contains(ACCEPT_ENCODING.toLowerCase())) return true;
+        }
+        return false;
+    }
+
     public static boolean clientAcceptsGZip(final HeaderParameters headers) {
         return headers.contains(ACCEPT_ENCODING) && headers.getValue(ACCEPT_ENCODING).contains(GZIP);
     }
@@ -0,0 +1,25 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.utterlyidle.HttpHandler;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.multipart.OpenParts;
+
+/**
+ * Deletes whatever parts of the request were spilled to disk once it has been handled, so resources reading Parts
+ * never have to close them; a response that streams a part has to copy it first.
+ */
+public class PartsHandler implements HttpHandler {
+    private final HttpHandler httpHandler;
+    private final OpenParts openParts;
+
+    public PartsHandler(HttpHandler httpHandler, OpenParts openParts) {
+        this.httpHandler = httpHandler;
+        this.openParts = openParts;
+    }
+
+    @Override
+    public Response handle(Request request) throws Exception {
+        return openParts.open(() -> httpHandler.handle(request));
+    }
+}
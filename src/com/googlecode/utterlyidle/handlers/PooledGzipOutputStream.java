@@ -0,0 +1,69 @@
+package com.googlecode.utterlyidle.handlers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes the gzip format like GZIPOutputStream but with a Deflater borrowed from a pool. The Deflater goes back to the
+ * pool on close or release, whichever comes first, and the stream can not be written to after that.
+ */
+public class PooledGzipOutputStream extends DeflaterOutputStream {
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private final CRC32 crc = new CRC32();
+    private final DeflaterPool pool;
+    private boolean finished;
+    private boolean released;
+
+    public PooledGzipOutputStream(OutputStream out, DeflaterPool pool, int level) throws IOException {
+        super(out, pool.borrow(level), 8192);
+        this.pool = pool;
+        try {
+            out.write(HEADER);
+        } catch (IOException e) {
+            release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (released || finished) throw new IOException("Stream is already finished");
+        super.write(bytes, offset, length);
+        crc.update(bytes, offset, length);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (released || finished) return;
+        super.finish();
+        writeInt((int) crc.getValue());
+        writeInt((int) def.getBytesRead());
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (released) return;
+        try {
+            super.close();
+        } finally {
+            release();
+        }
+    }
+
+    public void release() {
+        if (released) return;
+        released = true;
+        pool.release(def);
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+}
@@ -0,0 +1,283 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.EntityTag;
+import com.googlecode.utterlyidle.HeaderParameters;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.Status;
+import com.googlecode.utterlyidle.UtterlyIdleProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.utterlyidle.HttpHeaders.AGE;
+import static com.googlecode.utterlyidle.HttpHeaders.ETAG;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_NONE_MATCH;
+import static com.googlecode.utterlyidle.HttpHeaders.VARY;
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.lang.String.valueOf;
+
+/**
+ * The responses ResponseCacheHandler shares between requests. It is bounded by roughly the bytes it holds and evicts
+ * the least recently used URIs first; all the variants of a URI (one per combination of its Vary headers) go together.
+ */
+public class ResponseCache {
+    public static final String MAXIMUM_SIZE = "response.cache.size";
+    public static final long DEFAULT_MAXIMUM_SIZE = 16 * 1024 * 1024;
+    public static final String MAXIMUM_ENTRY_SIZE = "response.cache.entry.size";
+    public static final int DEFAULT_MAXIMUM_ENTRY_SIZE = 1024 * 1024;
+    public static final String STALE_WHILE_REVALIDATE = "response.cache.stale.while.revalidate";
+    public static final int DEFAULT_STALE_WHILE_REVALIDATE = 0;
+    private final Map<String, Variants> cache = new LinkedHashMap<String, Variants>(16, 0.75f, true);
+    private final long maximumSize;
+    private final int maximumEntrySize;
+    private final int staleWhileRevalidate;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long size;
+
+    public ResponseCache(long maximumSize, int maximumEntrySize, int staleWhileRevalidate) {
+        this.maximumSize = maximumSize;
+        this.maximumEntrySize = maximumEntrySize;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public ResponseCache(UtterlyIdleProperties properties) {
+        this(parseLong(properties.getProperty(MAXIMUM_SIZE, valueOf(DEFAULT_MAXIMUM_SIZE))),
+                parseInt(properties.getProperty(MAXIMUM_ENTRY_SIZE, valueOf(DEFAULT_MAXIMUM_ENTRY_SIZE))),
+                parseInt(properties.getProperty(STALE_WHILE_REVALIDATE, valueOf(DEFAULT_STALE_WHILE_REVALIDATE))));
+    }
+
+    public static ResponseCache responseCache(long maximumSize) {
+        return new ResponseCache(maximumSize, (int) Math.min(maximumSize, DEFAULT_MAXIMUM_ENTRY_SIZE), DEFAULT_STALE_WHILE_REVALIDATE);
+    }
+
+    /**
+     * A fresh entry, or a stale one still within its stale-while-revalidate window; anything older is dropped.
+     */
+    public synchronized Option<Entry> get(Request request, long now) {
+        String key = key(request);
+        Variants variants = cache.get(key);
+        if (variants != null) {
+            Entry entry = variants.entries.get(variants.key(request));
+            if (entry != null && entry.fresh(now)) {
+                hits.incrementAndGet();
+                return some(entry);
+            }
+            if (entry != null && now < entry.staleUntil) {
+                staleHits.incrementAndGet();
+                return some(entry);
+            }
+            if (entry != null) remove(key, variants, entry);
+        }
+        misses.incrementAndGet();
+        return none();
+    }
+
+    /**
+     * Stores the response for maxAge seconds plus the stale-while-revalidate ones, or this cache's default for them.
+     */
+    public synchronized void put(Request request, Status status, HeaderParameters headers, byte[] body, long now, long maxAge, Option<Integer> staleWhileRevalidate) {
+        if (body.length > maximumEntrySize) return;
+        String key = key(request);
+        List<String> vary = vary(headers);
+        Variants variants = cache.get(key);
+        if (variants == null || !variants.names.equals(vary)) {
+            if (variants != null) discard(key, variants);
+            variants = new Variants(vary);
+            cache.put(key, variants);
+        }
+        long freshUntil = now + maxAge * 1000;
+        Entry entry = new Entry(request.uri().path(), status, headers, body, now, freshUntil,
+                freshUntil + staleWhileRevalidate.getOrElse(this.staleWhileRevalidate) * 1000L,
+                key.length() + body.length + weight(headers));
+        Entry previous = variants.entries.put(variants.key(request), entry);
+        if (previous != null) size -= previous.weight;
+        size += entry.weight;
+        evict();
+    }
+
+    /**
+     * Drops every entry at or below the prefix, leading slashes aside; "catalogue" takes "catalogue/1" but not
+     * "catalogues".
+     */
+    public synchronized int purge(String pathPrefix) {
+        String prefix = trimLeadingSlashes(pathPrefix);
+        int purged = 0;
+        for (Iterator<Variants> iterator = cache.values().iterator(); iterator.hasNext(); ) {
+            Variants variants = iterator.next();
+            for (Iterator<Entry> entries = variants.entries.values().iterator(); entries.hasNext(); ) {
+                Entry entry = entries.next();
+                if (!under(trimLeadingSlashes(entry.path), prefix)) continue;
+                entries.remove();
+                size -= entry.weight;
+                purged++;
+            }
+            if (variants.entries.isEmpty()) iterator.remove();
+        }
+        return purged;
+    }
+
+    public int maximumEntrySize() {
+        return maximumEntrySize;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long staleHits() {
+        return staleHits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized int entries() {
+        int entries = 0;
+        for (Variants variants : cache.values()) entries += variants.entries.size();
+        return entries;
+    }
+
+    private void evict() {
+        Iterator<Variants> eldest = cache.values().iterator();
+        while (size > maximumSize && eldest.hasNext()) {
+            Variants variants = eldest.next();
+            for (Entry entry : variants.entries.values()) size -= entry.weight;
+            evictions.addAndGet(variants.entries.size());
+            eldest.remove();
+        }
+    }
+
+    private void remove(String key, Variants variants, Entry entry) {
+        variants.entries.values().remove(entry);
+        size -= entry.weight;
+        if (variants.entries.isEmpty()) cache.remove(key);
+    }
+
+    private void discard(String key, Variants variants) {
+        for (Entry entry : variants.entries.values()) size -= entry.weight;
+        cache.remove(key);
+    }
+
+    private static String key(Request request) {
+        return request.method() + " " + request.uri();
+    }
+
+    private static List<String> vary(HeaderParameters headers) {
+        List<String> names = new ArrayList<String>();
+        for (String value : headers.getValues(VARY)) {
+            for (String name : value.split(",")) {
+                if (!name.trim().isEmpty()) names.add(name.trim().toLowerCase());
+            }
+        }
+        return names;
+    }
+
+    private static int weight(HeaderParameters headers) {
+        int weight = 0;
+        for (Pair<String, String> header : headers) weight += header.first().length() + header.second().length();
+        return weight;
+    }
+
+    private static boolean under(String path, String prefix) {
+        if (prefix.isEmpty() || path.equals(prefix)) return true;
+        return path.startsWith(prefix.endsWith("/") ? prefix : prefix + "/");
+    }
+
+    private static String trimLeadingSlashes(String value) {
+        int index = 0;
+        while (index < value.length() && value.charAt(index) == '/') index++;
+        return value.substring(index);
+    }
+
+    private static class Variants {
+        private final List<String> names;
+        private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+        private Variants(List<String> names) {
+            this.names = names;
+        }
+
+        private String key(Request request) {
+            StringBuilder key = new StringBuilder();
+            for (String name : names) key.append(request.headers().getValues(name).toString(",")).append('\n');
+            return key.toString();
+        }
+    }
+
+    public static class Entry {
+        private final String path;
+        private final Status status;
+        private final HeaderParameters headers;
+        private final byte[] body;
+        private final long storedAt;
+        private final long freshUntil;
+        private final long staleUntil;
+        private final int weight;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        private Entry(String path, Status status, HeaderParameters headers, byte[] body, long storedAt, long freshUntil, long staleUntil, int weight) {
+            this.path = path;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.storedAt = storedAt;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+            this.weight = weight;
+        }
+
+        public boolean fresh(long now) {
+            return now < freshUntil;
+        }
+
+        /**
+         * True for only one caller until revalidated is called, so a stale entry is refreshed once at a time.
+         */
+        public boolean revalidate() {
+            return revalidating.compareAndSet(false, true);
+        }
+
+        public void revalidated() {
+            revalidating.set(false);
+        }
+
+        /**
+         * The stored response with its Age, or a 304 when the request already has its ETag.
+         */
+        public Response response(Request request, long now) {
+            String age = valueOf(Math.max(0, (now - storedAt) / 1000));
+            for (String etag : headers.valueOption(ETAG)) {
+                for (EntityTag tag : EntityTag.entityTag(etag)) {
+                    if (!tag.noneMatch(request.headers().getValues(IF_NONE_MATCH)))
+                        return EtagHandler.notModified(headers, tag).header(AGE, age);
+                }
+            }
+            return Response.response(status, headers, Entity.entity(body)).header(AGE, age);
+        }
+    }
+}
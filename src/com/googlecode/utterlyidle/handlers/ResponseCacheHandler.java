@@ -0,0 +1,137 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.time.Clock;
+import com.googlecode.utterlyidle.Application;
+import com.googlecode.utterlyidle.HeaderParameters;
+import com.googlecode.utterlyidle.HttpHandler;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.Status;
+import com.googlecode.utterlyidle.jobs.Completer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.HttpHeaders.AUTHORIZATION;
+import static com.googlecode.utterlyidle.HttpHeaders.CACHE_CONTROL;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_MODIFIED_SINCE;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_NONE_MATCH;
+import static com.googlecode.utterlyidle.HttpHeaders.SET_COOKIE;
+import static com.googlecode.utterlyidle.HttpHeaders.VARY;
+import static com.googlecode.utterlyidle.annotations.HttpMethod.GET;
+
+/**
+ * Serves GETs from the shared ResponseCache for as long as the response's own s-maxage or max-age allows, then for
+ * its stale-while-revalidate window while the Completer fetches a fresh copy in the background.
+ *
+ * Only 200s with a known length are stored, and never ones that set cookies, are private, no-store or no-cache, vary
+ * on everything or answer a request with credentials.
+ */
+public class ResponseCacheHandler implements HttpHandler {
+    public static final String NO_CACHE = "no-cache";
+    public static final String NO_STORE = "no-store";
+    public static final String PRIVATE = "private";
+    public static final String MAX_AGE = "max-age";
+    public static final String S_MAXAGE = "s-maxage";
+    public static final String STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+    private final HttpHandler httpHandler;
+    private final ResponseCache cache;
+    private final Completer completer;
+    private final Application application;
+    private final Clock clock;
+
+    public ResponseCacheHandler(HttpHandler httpHandler, ResponseCache cache, Completer completer, Application application, Clock clock) {
+        this.httpHandler = httpHandler;
+        this.cache = cache;
+        this.completer = completer;
+        this.application = application;
+        this.clock = clock;
+    }
+
+    @Override
+    public Response handle(Request request) throws Exception {
+        Map<String, String> directives = directives(request.headers());
+        if (!request.method().equals(GET) || request.headers().contains(AUTHORIZATION) || directives.containsKey(NO_STORE)) {
+            return httpHandler.handle(request);
+        }
+        long now = clock.now().getTime();
+        if (!directives.containsKey(NO_CACHE) && !"0".equals(directives.get(MAX_AGE))) {
+            for (ResponseCache.Entry entry : cache.get(request, now)) {
+                if (!entry.fresh(now) && entry.revalidate()) revalidate(request, entry);
+                return entry.response(request, now);
+            }
+        }
+        return store(request, httpHandler.handle(request), now);
+    }
+
+    private Response store(Request request, Response response, long now) {
+        if (!response.status().equals(Status.OK) || response.headers().contains(SET_COOKIE) || variesOnEverything(response.headers())) {
+            return response;
+        }
+        Map<String, String> directives = directives(response.headers());
+        if (directives.containsKey(PRIVATE) || directives.containsKey(NO_STORE) || directives.containsKey(NO_CACHE)) return response;
+        Option<Integer> maxAge = seconds(directives, S_MAXAGE);
+        if (maxAge.isEmpty()) maxAge = seconds(directives, MAX_AGE);
+        if (maxAge.isEmpty() || maxAge.get() <= 0) return response;
+        Option<Integer> length = response.entity().length();
+        if (length.isEmpty() || length.get() > cache.maximumEntrySize()) return response;
+        cache.put(request, response.status(), response.headers(), response.entity().toBytes(), now, maxAge.get(), seconds(directives, STALE_WHILE_REVALIDATE));
+        return response;
+    }
+
+    /**
+     * The refresh goes through the whole application again, marked no-cache so it skips the stale entry and stores
+     * what comes back in its place. If the Completer turns the job down the entry is released for the next request.
+     */
+    private void revalidate(Request request, ResponseCache.Entry entry) {
+        Request refresh = request.replaceHeaders(sequence(
+                pair(CACHE_CONTROL, NO_CACHE),
+                pair(IF_NONE_MATCH, (String) null),
+                pair(IF_MODIFIED_SINCE, (String) null)));
+        boolean scheduled = false;
+        try {
+            completer.complete(() -> {
+                try {
+                    return application.handle(refresh);
+                } finally {
+                    entry.revalidated();
+                }
+            });
+            scheduled = true;
+        } finally {
+            if (!scheduled) entry.revalidated();
+        }
+    }
+
+    private static boolean variesOnEverything(HeaderParameters headers) {
+        for (String vary : headers.getValues(VARY)) {
+            if (vary.contains("*")) return true;
+        }
+        return false;
+    }
+
+    private static Map<String, String> directives(HeaderParameters headers) {
+        Map<String, String> directives = new HashMap<String, String>();
+        for (String value : headers.getValues(CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String[] parts = directive.split("=", 2);
+                String name = parts[0].trim().toLowerCase();
+                if (!name.isEmpty()) directives.put(name, parts.length > 1 ? parts[1].trim().replace("\"", "") : "");
+            }
+        }
+        return directives;
+    }
+
+    private static Option<Integer> seconds(Map<String, String> directives, String name) {
+        try {
+            return directives.containsKey(name) ? some(Integer.parseInt(directives.get(name))) : none(Integer.class);
+        } catch (NumberFormatException e) {
+            return none(Integer.class);
+        }
+    }
+}
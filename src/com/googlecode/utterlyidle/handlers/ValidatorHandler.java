@@ -0,0 +1,118 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.totallylazy.Either;
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.time.Dates;
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.Bindings;
+import com.googlecode.utterlyidle.EntityTag;
+import com.googlecode.utterlyidle.HttpHandler;
+import com.googlecode.utterlyidle.MatchFailure;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.Status;
+import com.googlecode.utterlyidle.Validator;
+import com.googlecode.utterlyidle.bindings.BindingMatcher;
+import com.googlecode.utterlyidle.bindings.MatchedBinding;
+import com.googlecode.yadic.Container;
+
+import java.util.Date;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.utterlyidle.HttpHeaders.ETAG;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_MODIFIED_SINCE;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_NONE_MATCH;
+import static com.googlecode.utterlyidle.HttpHeaders.LAST_MODIFIED;
+import static com.googlecode.utterlyidle.RegisteredResources.hasValidators;
+import static com.googlecode.utterlyidle.Status.NOT_MODIFIED;
+import static com.googlecode.utterlyidle.annotations.HttpMethod.GET;
+import static com.googlecode.utterlyidle.annotations.HttpMethod.HEAD;
+import static com.googlecode.utterlyidle.bindings.MatchedBinding.constructors.matchedBinding;
+import static com.googlecode.yadic.Containers.addIfAbsent;
+
+/**
+ * Answers conditional GETs for bindings with a Validator before the resource is invoked, and adds the validator's
+ * ETag and Last-Modified to the successful responses of the ones it lets through so clients have something to send
+ * back. The validator is read before the resource runs, so a body is never tagged with a newer version than its own.
+ * Applications without any validated bindings pass straight through, and the binding matched here is reused by
+ * BaseHandler rather than matched again.
+ */
+public class ValidatorHandler implements HttpHandler {
+    private final HttpHandler httpHandler;
+    private final BindingMatcher bindingMatcher;
+    private final Container container;
+    private final boolean validated;
+
+    public ValidatorHandler(HttpHandler httpHandler, BindingMatcher bindingMatcher, Container container, Bindings bindings) {
+        this.httpHandler = httpHandler;
+        this.bindingMatcher = bindingMatcher;
+        this.container = container;
+        this.validated = hasValidators(bindings);
+    }
+
+    @Override
+    public Response handle(Request request) throws Exception {
+        if (!validated || !request.method().equals(GET) && !request.method().equals(HEAD)) return httpHandler.handle(request);
+        Either<MatchFailure, Binding> match = bindingMatcher.match(request);
+        if (match.isLeft() || match.right().validator().isEmpty()) return httpHandler.handle(request);
+
+        Validator validator = validator(request, match.right());
+        Option<EntityTag> etag = validator.etag(request);
+        Option<Date> lastModified = validator.lastModified(request);
+        if (isConditional(request) && notModified(request, etag, lastModified)) {
+            return stamp(Response.response(NOT_MODIFIED), etag, lastModified);
+        }
+        Response response = httpHandler.handle(request);
+        if (!response.status().equals(Status.OK)) return response;
+        return stamp(response, etag, lastModified);
+    }
+
+    private Validator validator(Request request, Binding binding) {
+        container.remove(Request.class);
+        container.addInstance(Request.class, request);
+        if (container.contains(MatchedBinding.class)) container.remove(MatchedBinding.class);
+        container.addInstance(MatchedBinding.class, matchedBinding(binding));
+        Class<? extends Validator> validatorClass = binding.validator().get();
+        return addIfAbsent(container, validatorClass).get(validatorClass);
+    }
+
+    private static boolean isConditional(Request request) {
+        return request.headers().contains(IF_NONE_MATCH) || request.headers().contains(IF_MODIFIED_SINCE);
+    }
+
+    /**
+     * If-Modified-Since only counts when there is no If-None-Match, as RFC 7232 asks.
+     */
+    private static boolean notModified(Request request, Option<EntityTag> etag, Option<Date> lastModified) {
+        if (request.headers().contains(IF_NONE_MATCH)) {
+            for (EntityTag tag : etag) return !tag.noneMatch(request.headers().getValues(IF_NONE_MATCH));
+            return false;
+        }
+        for (Date modified : lastModified) {
+            for (Date since : date(request.headers().getValue(IF_MODIFIED_SINCE))) {
+                return modified.getTime() / 1000 <= since.getTime() / 1000;
+            }
+        }
+        return false;
+    }
+
+    private static Option<Date> date(String value) {
+        try {
+            return some(Dates.parse(value));
+        } catch (Exception e) {
+            return none(Date.class);
+        }
+    }
+
+    private static Response stamp(Response response, Option<EntityTag> etag, Option<Date> lastModified) {
+        Response result = response;
+        for (EntityTag tag : etag) {
+            if (result.header(ETAG).isEmpty()) result = result.header(ETAG, tag.toString());
+        }
+        for (Date modified : lastModified) {
+            if (result.header(LAST_MODIFIED).isEmpty()) result = result.header(LAST_MODIFIED, Dates.RFC822().format(modified));
+        }
+        return result;
+    }
+}
@@ -4,6 +4,7 @@ import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Value;
 import com.googlecode.utterlyidle.Application;
 import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.EntitySizeLimit;
 import com.googlecode.utterlyidle.HttpHeaders;
 import com.googlecode.utterlyidle.Protocol;
 import com.googlecode.utterlyidle.Request;
@@ -21,13 +22,20 @@ import static com.googlecode.totallylazy.Closeables.using;
 import static com.googlecode.totallylazy.io.Uri.uri;
 import static com.googlecode.utterlyidle.ClientAddress.clientAddress;
 import static com.googlecode.utterlyidle.HeaderParameters.headerParameters;
+import static com.googlecode.utterlyidle.LimitedInputStream.limitedInputStream;
 import static com.googlecode.utterlyidle.RequestEnricher.requestEnricher;
 
 public class RestHandler implements HttpHandler {
     private final Application application;
+    private final long maxEntitySize;
 
     public RestHandler(Application application) {
+        this(application, EntitySizeLimit.NO_LIMIT);
+    }
+
+    public RestHandler(Application application, long maxEntitySize) {
         this.application = application;
+        this.maxEntitySize = maxEntitySize;
     }
 
     public void handle(HttpExchange httpExchange) throws IOException {
@@ -55,7 +63,7 @@ public class RestHandler implements HttpHandler {
 
 
     private Request request(HttpExchange httpExchange) {
-        Request request = Request.request(httpExchange.getRequestMethod(), uri(httpExchange.getRequestURI().toString()), headerParameters(httpExchange.getRequestHeaders()), Entity.entity(httpExchange.getRequestBody()));
+        Request request = Request.request(httpExchange.getRequestMethod(), uri(httpExchange.getRequestURI().toString()), headerParameters(httpExchange.getRequestHeaders()), Entity.entity(limitedInputStream(httpExchange.getRequestBody(), maxEntitySize)));
         return requestEnricher(
                 clientAddress(httpExchange.getRemoteAddress().getAddress()),
                 httpExchange instanceof HttpsExchange ? Protocol.HTTPS : Protocol.HTTP)
@@ -88,7 +96,7 @@ class ContentLength {
     interface ResponseType extends Value<Long> { }
 
     static ResponseType handle(final Response response) {
-        if(response.entity().isStreaming()) return Streaming;
+        if(response.entity().isStreaming() && response.entity().length().isEmpty()) return Streaming;
         for (String length : response.headers().valueOption(HttpHeaders.CONTENT_LENGTH)) return Content(Long.parseLong(length));
         return NoContent;
     }
@@ -61,7 +61,7 @@ public class RestServer implements Server {
 
     private HttpServer startUpServer(Application application, ServerConfiguration configuration) throws Exception {
         HttpServer server = createServer(configuration);
-        server.createContext(configuration.basePath().toString(), new RestHandler(application));
+        server.createContext(configuration.basePath().toString(), new RestHandler(application, configuration.maxEntitySize()));
         executorService = newFixedThreadPool(configuration.maxThreadNumber(), getClass());
         server.setExecutor(executorService);
         server.start();
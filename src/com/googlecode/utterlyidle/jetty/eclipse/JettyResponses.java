@@ -0,0 +1,45 @@
+package com.googlecode.utterlyidle.jetty.eclipse;
+
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.servlet.ApplicationServlet;
+import org.eclipse.jetty.server.HttpOutput;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static com.googlecode.totallylazy.Closeables.using;
+
+/**
+ * Hands File and ByteBuffer entities to Jetty as buffers (memory mapping files) so they are written to the socket
+ * without being copied through an OutputStream. Everything else, including entities whose writer has been replaced,
+ * goes through the entity writer as usual.
+ */
+public class JettyResponses {
+    public static void transfer(Response source, HttpServletResponse destination) throws IOException {
+        Object value = source.entity().value();
+        if (!source.entity().isTransferable() || !(value instanceof File || value instanceof ByteBuffer)) {
+            ApplicationServlet.transfer(source, destination);
+            return;
+        }
+        ApplicationServlet.transferHeaders(source, destination);
+        ServletOutputStream outputStream = destination.getOutputStream();
+        if (!(outputStream instanceof HttpOutput)) {
+            using(outputStream, source.entity().writer());
+            return;
+        }
+        HttpOutput output = (HttpOutput) outputStream;
+        if (value instanceof ByteBuffer) {
+            output.sendContent(((ByteBuffer) value).duplicate());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(((File) value).toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) output.sendContent(channel);
+            else output.sendContent(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+}
@@ -60,7 +60,7 @@ public class RestServer implements com.googlecode.utterlyidle.Server {
             @Override
             public void handle(String target, Request baseRequest, HttpServletRequest servletRequest, HttpServletResponse response) throws IOException, ServletException {
                 try {
-                    ApplicationServlet.transfer(application.handle(ApplicationServlet.request(servletRequest)), response);
+                    JettyResponses.transfer(application.handle(ApplicationServlet.request(servletRequest)), response);
                 } catch (Exception e) {
                     throw new ServletException(e.getMessage(), e);
                 }
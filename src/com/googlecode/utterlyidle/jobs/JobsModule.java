@@ -28,8 +28,8 @@ public class JobsModule implements ResourcesModule, ApplicationScopedModule, Req
     @Override
     public Container addPerApplicationObjects(Container container) throws Exception {
         addIfAbsent(container, JobsStorage.class, InMemoryJobsStorage.class);
-        return addIfAbsent(container, JobsHistoryCapacity.class).
-                add(Completer.class, CpuBoundedCompleter.class);
+        addIfAbsent(container, JobsHistoryCapacity.class);
+        return addIfAbsent(container, Completer.class, CpuBoundedCompleter.class);
     }
 
     @Override
@@ -2,6 +2,12 @@ package com.googlecode.utterlyidle.modules;
 
 import com.googlecode.yadic.Container;
 
+/**
+ * Adds to the container that resource method arguments are resolved from when ArgumentPlan can not read them straight
+ * off the request. Named String, int, long, UUID and Date parameters (and Option or Iterable of them), Request,
+ * Entity, InputStream and the Parameters classes never reach it, so overriding those types here does not change
+ * resource arguments; give the argument a type of its own instead.
+ */
 public interface ArgumentScopedModule extends Module {
     Container addPerArgumentObjects(Container container) throws Exception;
 
@@ -16,6 +16,7 @@ import com.googlecode.utterlyidle.BindingsRequestGenerator;
 import com.googlecode.utterlyidle.DebuggingOnlyExceptionLogger;
 import com.googlecode.utterlyidle.EitherResolver;
 import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.EntitySizeLimit;
 import com.googlecode.utterlyidle.ExceptionLogger;
 import com.googlecode.utterlyidle.FormParameters;
 import com.googlecode.utterlyidle.HeaderParameters;
@@ -38,6 +39,7 @@ import com.googlecode.utterlyidle.UUIDActivator;
 import com.googlecode.utterlyidle.UriActivator;
 import com.googlecode.utterlyidle.annotations.View;
 import com.googlecode.utterlyidle.cookies.CookieParameters;
+import com.googlecode.utterlyidle.dsl.CompressedResources;
 import com.googlecode.utterlyidle.handlers.ApplicationId;
 import com.googlecode.utterlyidle.handlers.Auditor;
 import com.googlecode.utterlyidle.handlers.Auditors;
@@ -49,6 +51,9 @@ import com.googlecode.utterlyidle.handlers.InternalInvocationHandler;
 import com.googlecode.utterlyidle.handlers.InvocationHandler;
 import com.googlecode.utterlyidle.handlers.ResponseHandlers;
 import com.googlecode.utterlyidle.handlers.ResponseHandlersFinder;
+import com.googlecode.utterlyidle.multipart.MultipartConfiguration;
+import com.googlecode.utterlyidle.multipart.OpenParts;
+import com.googlecode.utterlyidle.multipart.Parts;
 import com.googlecode.utterlyidle.rendering.ExceptionRenderer;
 import com.googlecode.utterlyidle.rendering.MatchFailureRenderer;
 import com.googlecode.utterlyidle.rendering.ObjectRenderer;
@@ -109,6 +114,7 @@ public class CoreModule implements ModuleDefiner, RequestScopedModule, Applicati
                 add(InternalHttpHandler.class).
                 decorate(HttpClient.class, SmartHttpClient.class).
                 add(InvocationHandler.class, InternalInvocationHandler.class).
+                addActivator(Parts.class, () -> container.get(OpenParts.class).parts(container.get(Request.class))).
                 add(ExceptionLogger.class, DebuggingOnlyExceptionLogger.class);
     }
 
@@ -119,6 +125,10 @@ public class CoreModule implements ModuleDefiner, RequestScopedModule, Applicati
                 addActivator(Bindings.class, container.getActivator(Resources.class)).
                 add(ApplicationId.class).
                 add(InternalRequestMarker.class).
+                add(MultipartConfiguration.class).
+                add(OpenParts.class).
+                add(EntitySizeLimit.class).
+                add(CompressedResources.class).
                 add(Services.class);
     }
 
@@ -148,6 +158,7 @@ public class CoreModule implements ModuleDefiner, RequestScopedModule, Applicati
                 addInstance(CookieParameters.class, request.cookies()).
                 addInstance(Entity.class, request.entity()).
                 addInstance(InputStream.class, request.entity().inputStream()).
+                addActivator(Parts.class, () -> argumentScope.get(OpenParts.class).parts(request)).
                 addActivator(UUID.class, UUIDActivator.class).
                 addActivator(Date.class, DateActivator.class).
                 addActivator(Uri.class, UriActivator.class).
@@ -0,0 +1,8 @@
+package com.googlecode.utterlyidle.modules;
+
+/**
+ * Marker for modules that want to be activated reflectively every time a request or argument scope is built,
+ * instead of through the activation plan that Modules freezes once the modules have been added.
+ */
+public interface DynamicModule extends Module {
+}
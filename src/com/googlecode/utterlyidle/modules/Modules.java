@@ -1,9 +1,12 @@
 package com.googlecode.utterlyidle.modules;
 
+import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.functions.Block;
 import com.googlecode.utterlyidle.Binding;
 import com.googlecode.utterlyidle.UtterlyIdleProperties;
+import com.googlecode.utterlyidle.handlers.Auditors;
+import com.googlecode.utterlyidle.handlers.ResponseHandlers;
 import com.googlecode.utterlyidle.services.Service;
 import com.googlecode.utterlyidle.services.ServicesModule;
 import com.googlecode.yadic.Container;
@@ -11,10 +14,12 @@ import com.googlecode.yadic.Resolver;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.googlecode.totallylazy.Classes.isInstance;
+import static com.googlecode.totallylazy.LazyException.lazyException;
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.Unchecked.cast;
 import static com.googlecode.totallylazy.reflection.Methods.methods;
@@ -27,6 +32,8 @@ public class Modules implements ModuleDefinitions, ModuleActivator {
     private final List<Class<? extends Module>> applicationModuleClasses = new CopyOnWriteArrayList<>();
     private final List<Class<? extends Module>> requestModuleClasses = new CopyOnWriteArrayList<>();
     private final List<Class<? extends Module>> argumentModuleClasses = new CopyOnWriteArrayList<>();
+    private volatile List<Block<Container>> requestActivations;
+    private volatile List<Block<Container>> argumentActivations;
 
     public Modules setupApplicationScope(Container applicationScope) {
         applicationScope.addInstance(Modules.class, this);
@@ -42,30 +49,77 @@ public class Modules implements ModuleDefinitions, ModuleActivator {
 
     public ModuleDefinitions addRequestModule(Class<? extends Module> moduleClass) {
         requestModuleClasses.add(moduleClass);
+        requestActivations = null;
         return this;
     }
 
     public ModuleDefinitions addArgumentModule(Class<? extends Module> moduleClass) {
         argumentModuleClasses.add(moduleClass);
+        argumentActivations = null;
         return this;
     }
 
     public ModuleActivator activateApplicationModule(Module module, Container applicationScope) {
         modules.add(module);
+        requestActivations = null;
+        argumentActivations = null;
         activate(module, applicationScope, Sequences.<Class<? extends Module>>sequence(ModuleDefiner.class).join(applicationModuleClasses));
         return this;
     }
 
     public ModuleActivator activateRequestModules(Container requestScope) {
         selfRegister(requestScope);
-        sequence(modules).each(activate(requestScope, requestModuleClasses));
-        return this;
+        List<Block<Container>> activations = requestActivations;
+        if (activations == null) requestActivations = activations = activations(requestModuleClasses);
+        return activate(activations, requestScope);
     }
 
     public ModuleActivator activateArgumentModules(Container argumentScope) {
         selfRegister(argumentScope);
-        sequence(modules).each(activate(argumentScope, argumentModuleClasses));
-        return this;
+        List<Block<Container>> activations = argumentActivations;
+        if (activations == null) argumentActivations = activations = activations(argumentModuleClasses);
+        return activate(activations, argumentScope);
+    }
+
+    private ModuleActivator activate(List<Block<Container>> activations, Container container) {
+        try {
+            for (Block<Container> activation : activations) activation.call(container);
+            return this;
+        } catch (Exception e) {
+            throw lazyException(e);
+        }
+    }
+
+    /**
+     * Works out once which module methods a scope needs, in the same order activate would call them, so building
+     * a scope no longer has to reflect over every module. Modules marked as DynamicModule are still activated
+     * reflectively each time.
+     */
+    private List<Block<Container>> activations(List<Class<? extends Module>> moduleClasses) {
+        List<Block<Container>> result = new ArrayList<>();
+        for (Module module : modules) {
+            if (module instanceof DynamicModule) {
+                result.add(container -> activate(module, container, moduleClasses));
+                continue;
+            }
+            for (Class<? extends Module> moduleClass : moduleClasses) {
+                if (moduleClass.isInstance(module)) result.add(activation(module, moduleClass));
+            }
+        }
+        return result;
+    }
+
+    private static Block<Container> activation(Module module, Class<? extends Module> moduleClass) {
+        if (moduleClass.equals(RequestScopedModule.class))
+            return container -> ((RequestScopedModule) module).addPerRequestObjects(container);
+        if (moduleClass.equals(ResponseHandlersModule.class))
+            return container -> ((ResponseHandlersModule) module).addResponseHandlers(container.get(ResponseHandlers.class), container);
+        if (moduleClass.equals(AuditModule.class))
+            return container -> ((AuditModule) module).addAuditors(container.get(Auditors.class));
+        if (moduleClass.equals(ArgumentScopedModule.class))
+            return container -> ((ArgumentScopedModule) module).addPerArgumentObjects(container);
+        Sequence<Method> methods = sequence(moduleClass).flatMap(methods()).realise();
+        return container -> methods.each(invoke(module, container));
     }
 
     public static <M extends Iterable<? extends Class<? extends Module>>> Block<Module> activate(final Container container, final M modules) {
@@ -6,6 +6,7 @@ import com.googlecode.utterlyidle.handlers.*;
 import com.googlecode.yadic.Container;
 
 import static com.googlecode.utterlyidle.handlers.CachePolicy.cachePolicy;
+import static com.googlecode.utterlyidle.handlers.EtagPolicy.etagPolicy;
 import static com.googlecode.utterlyidle.handlers.GZipPolicy.gZipPolicy;
 import static com.googlecode.utterlyidle.sitemesh.ContentTypePredicate.contentType;
 
@@ -25,6 +26,7 @@ public class PerformanceModule implements RequestScopedModule {
                         add(contentType(MediaType.TEXT_JAVASCRIPT)).
                         add(contentType(MediaType.TEXT_CSS))).
                 decorate(HttpHandler.class, CacheControlHandler.class).
+                addInstance(EtagPolicy.class, etagPolicy()).
                 decorate(HttpHandler.class, EtagHandler.class);
     }
 }
@@ -0,0 +1,27 @@
+package com.googlecode.utterlyidle.modules;
+
+import com.googlecode.utterlyidle.HttpHandler;
+import com.googlecode.utterlyidle.handlers.ResponseCache;
+import com.googlecode.utterlyidle.handlers.ResponseCacheHandler;
+import com.googlecode.utterlyidle.jobs.Completer;
+import com.googlecode.utterlyidle.jobs.CpuBoundedCompleter;
+import com.googlecode.yadic.Container;
+
+import static com.googlecode.yadic.Containers.addIfAbsent;
+
+/**
+ * Caches responses on the server for as long as their Cache-Control allows. Add it after PerformanceModule so the
+ * cache holds the compressed, tagged responses that module produces.
+ */
+public class ResponseCacheModule implements ApplicationScopedModule, RequestScopedModule {
+    @Override
+    public Container addPerApplicationObjects(Container container) throws Exception {
+        addIfAbsent(container, ResponseCache.class);
+        return addIfAbsent(container, Completer.class, CpuBoundedCompleter.class);
+    }
+
+    @Override
+    public Container addPerRequestObjects(Container container) throws Exception {
+        return container.decorate(HttpHandler.class, ResponseCacheHandler.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.googlecode.utterlyidle.multipart;
+
+import com.googlecode.utterlyidle.UtterlyIdleProperties;
+
+import java.io.File;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.valueOf;
+
+public class MultipartConfiguration {
+    public static final String MEMORY_THRESHOLD = "multipart.memory.threshold";
+    public static final String TEMPORARY_DIRECTORY = "multipart.temporary.directory";
+    public static final int DEFAULT_MEMORY_THRESHOLD = 64 * 1024;
+    public static final String DEFAULT_TEMPORARY_DIRECTORY = System.getProperty("java.io.tmpdir");
+
+    private final int memoryThreshold;
+    private final File temporaryDirectory;
+
+    public MultipartConfiguration(int memoryThreshold, File temporaryDirectory) {
+        if (memoryThreshold < 0) throw new IllegalArgumentException("memoryThreshold can not be negative");
+        this.memoryThreshold = memoryThreshold;
+        this.temporaryDirectory = temporaryDirectory;
+    }
+
+    public MultipartConfiguration(UtterlyIdleProperties properties) {
+        this(parseInt(properties.getProperty(MEMORY_THRESHOLD, valueOf(DEFAULT_MEMORY_THRESHOLD))),
+                new File(properties.getProperty(TEMPORARY_DIRECTORY, DEFAULT_TEMPORARY_DIRECTORY)));
+    }
+
+    public static MultipartConfiguration multipartConfiguration() {
+        return new MultipartConfiguration(DEFAULT_MEMORY_THRESHOLD, new File(DEFAULT_TEMPORARY_DIRECTORY));
+    }
+
+    /**
+     * Parts up to this many bytes are kept in memory, bigger ones are written to a file in the temporary directory.
+     */
+    public int memoryThreshold() {
+        return memoryThreshold;
+    }
+
+    public MultipartConfiguration memoryThreshold(int memoryThreshold) {
+        return new MultipartConfiguration(memoryThreshold, temporaryDirectory);
+    }
+
+    public File temporaryDirectory() {
+        return temporaryDirectory;
+    }
+
+    public MultipartConfiguration temporaryDirectory(File temporaryDirectory) {
+        return new MultipartConfiguration(memoryThreshold, temporaryDirectory);
+    }
+}
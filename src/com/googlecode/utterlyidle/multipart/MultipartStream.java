@@ -0,0 +1,142 @@
+package com.googlecode.utterlyidle.multipart;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.utterlyidle.HeaderParameters;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+
+/**
+ * Scans a multipart body for its delimiters through a fixed size buffer, so a part is handed on as it arrives and
+ * never has to be held whole.
+ */
+class MultipartStream {
+    private static final int MAXIMUM_LINE = 8192;
+    private final InputStream source;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private byte[] line = new byte[256];
+    private int position;
+    private int limit;
+    private boolean inBody = true;
+    private boolean finished;
+
+    MultipartStream(InputStream source, String boundary) {
+        this.source = source;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(8192, delimiter.length * 2)];
+        // the first boundary may start the body, so pretend it follows a line break like every other one
+        buffer[limit++] = '\r';
+        buffer[limit++] = '\n';
+    }
+
+    /**
+     * Skips whatever is left of the current part (or the preamble) and reads the headers of the next one. None once
+     * the closing delimiter has been read.
+     */
+    Option<HeaderParameters> next() throws IOException {
+        if (finished) return none();
+        for (int available = available(); available != -1; available = available()) {
+            position += available;
+        }
+        if (!fill(2)) throw new EOFException("Multipart body ended without a closing boundary");
+        if (buffer[position] == '-' && buffer[position + 1] == '-') {
+            finished = true;
+            return none();
+        }
+        readLine();
+        HeaderParameters headers = new HeaderParameters();
+        for (int length = readLine(); length > 0; length = readLine()) {
+            headers = header(headers, length);
+        }
+        inBody = true;
+        return some(headers);
+    }
+
+    /**
+     * Reads from the current part, returning -1 at its end.
+     */
+    int read(byte[] bytes, int offset, int length) throws IOException {
+        int available = available();
+        if (available == -1) return -1;
+        int count = Math.min(length, available);
+        System.arraycopy(buffer, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    /**
+     * How many bytes from the position are certainly part of the body, consuming the delimiter once it is reached.
+     */
+    private int available() throws IOException {
+        if (!inBody) return -1;
+        boolean enough = fill(delimiter.length);
+        int found = indexOfDelimiter();
+        if (found == position) {
+            position += delimiter.length;
+            inBody = false;
+            return -1;
+        }
+        if (found == -1 && !enough) throw new EOFException("Multipart body ended without a closing boundary");
+        return found == -1 ? limit - position - delimiter.length + 1 : found - position;
+    }
+
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        for (int i = position; i <= last; i++) {
+            if (buffer[i] != delimiter[0]) continue;
+            int j = 1;
+            while (j < delimiter.length && buffer[i + j] == delimiter[j]) j++;
+            if (j == delimiter.length) return i;
+        }
+        return -1;
+    }
+
+    private boolean fill(int needed) throws IOException {
+        if (limit - position >= needed) return true;
+        if (buffer.length - position < needed) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (limit - position < needed) {
+            int read = source.read(buffer, limit, buffer.length - limit);
+            if (read == -1) return false;
+            limit += read;
+        }
+        return true;
+    }
+
+    private int readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!fill(1)) throw new EOFException("Multipart body ended in the middle of the part headers");
+            byte b = buffer[position++];
+            if (b == '\n') break;
+            if (length == MAXIMUM_LINE) throw new IllegalArgumentException("Multipart header line is longer than " + MAXIMUM_LINE + " bytes");
+            if (length == line.length) line = Arrays.copyOf(line, length * 2);
+            line[length++] = b;
+        }
+        if (length > 0 && line[length - 1] == '\r') length--;
+        return length;
+    }
+
+    private HeaderParameters header(HeaderParameters headers, int length) {
+        int colon = 0;
+        while (colon < length && line[colon] != ':') colon++;
+        if (colon == length) return headers.add(string(0, length), "");
+        return headers.add(string(0, colon), string(colon + 1, length));
+    }
+
+    private String string(int start, int end) {
+        while (start < end && (line[start] & 0xFF) <= ' ') start++;
+        while (end > start && (line[end - 1] & 0xFF) <= ' ') end--;
+        return new String(line, start, end - start, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,55 @@
+package com.googlecode.utterlyidle.multipart;
+
+import com.googlecode.utterlyidle.Request;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * The Parts of the requests being handled. PartsHandler opens a holder for each request on the thread handling it,
+ * so the request and argument scopes share one Parts however often the entity is wrapped on the way in, and closes
+ * it once the request is done.
+ */
+public class OpenParts {
+    private final ThreadLocal<RequestParts> current = new ThreadLocal<RequestParts>();
+    private final MultipartConfiguration configuration;
+
+    public OpenParts(MultipartConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    public <T> T open(Callable<T> handler) throws Exception {
+        RequestParts previous = current.get();
+        RequestParts parts = new RequestParts();
+        current.set(parts);
+        try {
+            return handler.call();
+        } finally {
+            if (previous == null) current.remove();
+            else current.set(previous);
+            parts.close();
+        }
+    }
+
+    /**
+     * Outside of PartsHandler nothing will close them, so they are the caller's to close.
+     */
+    public Parts parts(Request request) {
+        RequestParts parts = current.get();
+        if (parts == null) return Parts.parts(request, configuration);
+        return parts.parts(request);
+    }
+
+    private class RequestParts {
+        private Parts parts;
+
+        synchronized Parts parts(Request request) {
+            if (parts == null) parts = Parts.parts(request, configuration);
+            return parts;
+        }
+
+        synchronized void close() throws IOException {
+            if (parts != null) parts.close();
+        }
+    }
+}
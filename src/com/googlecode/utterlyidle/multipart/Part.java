@@ -0,0 +1,127 @@
+package com.googlecode.utterlyidle.multipart;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.utterlyidle.HeaderParameters;
+import com.googlecode.utterlyidle.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import static com.googlecode.totallylazy.LazyException.lazyException;
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.utterlyidle.Entity.DEFAULT_CHARACTER_SET;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_DISPOSITION;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
+import static com.googlecode.utterlyidle.Rfc2616.toUnquotedString;
+
+/**
+ * One part of a multipart body, held in memory when it is small and in a temporary file otherwise. Closing it
+ * deletes the file.
+ */
+public class Part implements Closeable {
+    private final HeaderParameters headers;
+    private final byte[] bytes;
+    private final File file;
+    private final long length;
+
+    private Part(HeaderParameters headers, byte[] bytes, File file, long length) {
+        this.headers = headers;
+        this.bytes = bytes;
+        this.file = file;
+        this.length = length;
+    }
+
+    static Part part(HeaderParameters headers, byte[] bytes) {
+        return new Part(headers, bytes, null, bytes.length);
+    }
+
+    static Part part(HeaderParameters headers, File file, long length) {
+        return new Part(headers, null, file, length);
+    }
+
+    public HeaderParameters headers() {
+        return headers;
+    }
+
+    public Option<String> name() {
+        return dispositionParameter("name");
+    }
+
+    public Option<String> filename() {
+        return dispositionParameter("filename");
+    }
+
+    /**
+     * text/plain when the part does not say, as RFC 7578 defines.
+     */
+    public String contentType() {
+        return headers.valueOption(CONTENT_TYPE).getOrElse(MediaType.TEXT_PLAIN);
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public boolean inMemory() {
+        return file == null;
+    }
+
+    /**
+     * A new stream over the whole body each time.
+     */
+    public InputStream inputStream() {
+        if (inMemory()) return new ByteArrayInputStream(bytes);
+        try {
+            return new FileInputStream(file);
+        } catch (IOException e) {
+            throw lazyException(e);
+        }
+    }
+
+    public String value() {
+        try {
+            return new String(inMemory() ? bytes : Files.readAllBytes(file.toPath()), DEFAULT_CHARACTER_SET);
+        } catch (IOException e) {
+            throw lazyException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) Files.deleteIfExists(file.toPath());
+    }
+
+    private Option<String> dispositionParameter(String name) {
+        for (String disposition : headers.valueOption(CONTENT_DISPOSITION)) {
+            return parameter(disposition, name);
+        }
+        return none();
+    }
+
+    static Option<String> parameter(String header, String name) {
+        int start = 0;
+        while (start < header.length()) {
+            int end = start;
+            boolean quoted = false;
+            while (end < header.length() && (quoted || header.charAt(end) != ';')) {
+                char c = header.charAt(end);
+                if (c == '"') quoted = !quoted;
+                else if (c == '\\' && quoted) end++;
+                end++;
+            }
+            end = Math.min(end, header.length());
+            int equals = header.indexOf('=', start);
+            if (equals != -1 && equals < end && header.substring(start, equals).trim().equalsIgnoreCase(name)) {
+                return some(toUnquotedString(header.substring(equals + 1, end).trim()));
+            }
+            start = end + 1;
+        }
+        return none();
+    }
+}
@@ -0,0 +1,135 @@
+package com.googlecode.utterlyidle.multipart;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.utterlyidle.HeaderParameters;
+import com.googlecode.utterlyidle.Request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.googlecode.totallylazy.LazyException.lazyException;
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * The parts of a multipart request body, read from the entity stream only as far as they are iterated. Each part
+ * is copied out as it is reached, into memory up to the configured threshold and into a temporary file after that,
+ * so earlier parts stay readable and the body is never held whole.
+ *
+ * Close it (or each part) once done to delete the temporary files.
+ */
+public class Parts implements Iterable<Part>, Closeable {
+    private final MultipartStream stream;
+    private final MultipartConfiguration configuration;
+    private final List<Part> parts = new ArrayList<Part>();
+    private boolean finished;
+
+    private Parts(MultipartStream stream, MultipartConfiguration configuration) {
+        this.stream = stream;
+        this.configuration = configuration;
+        this.finished = stream == null;
+    }
+
+    public static Parts parts(InputStream inputStream, String boundary, MultipartConfiguration configuration) {
+        return new Parts(new MultipartStream(inputStream, boundary), configuration);
+    }
+
+    /**
+     * No parts unless the request is multipart.
+     */
+    public static Parts parts(Request request, MultipartConfiguration configuration) {
+        for (String boundary : request.headers().valueOption(CONTENT_TYPE).flatMap(Parts::boundary)) {
+            return parts(request.entity().inputStream(), boundary, configuration);
+        }
+        return new Parts(null, configuration);
+    }
+
+    static Option<String> boundary(String contentType) {
+        if (!contentType.regionMatches(true, 0, "multipart/", 0, "multipart/".length())) return none();
+        return Part.parameter(contentType, "boundary");
+    }
+
+    public Option<Part> part(String name) {
+        return sequence(this).find(part -> name.equals(part.name().getOrNull()));
+    }
+
+    @Override
+    public Iterator<Part> iterator() {
+        return new Iterator<Part>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < read(index + 1);
+            }
+
+            @Override
+            public Part next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return parts.get(index++);
+            }
+        };
+    }
+
+    /**
+     * Reads on until there are the given number of parts or the body ends, returning how many there are.
+     */
+    private synchronized int read(int wanted) {
+        try {
+            while (parts.size() < wanted && !finished) {
+                Option<HeaderParameters> headers = stream.next();
+                if (headers.isEmpty()) finished = true;
+                else parts.add(copy(headers.get()));
+            }
+            return parts.size();
+        } catch (IOException e) {
+            throw lazyException(e);
+        }
+    }
+
+    private Part copy(HeaderParameters headers) throws IOException {
+        byte[] chunk = new byte[8192];
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        OutputStream output = memory;
+        File file = null;
+        long length = 0;
+        try {
+            for (int read = stream.read(chunk, 0, chunk.length); read != -1; read = stream.read(chunk, 0, chunk.length)) {
+                if (file == null && length + read > configuration.memoryThreshold()) {
+                    file = File.createTempFile("utterlyidle-part", ".tmp", configuration.temporaryDirectory());
+                    output = new FileOutputStream(file);
+                    memory.writeTo(output);
+                    memory = null;
+                }
+                output.write(chunk, 0, read);
+                length += read;
+            }
+        } catch (IOException | RuntimeException e) {
+            if (file != null) {
+                output.close();
+                Files.deleteIfExists(file.toPath());
+            }
+            throw e;
+        }
+        if (file == null) return Part.part(headers, memory.toByteArray());
+        output.close();
+        return Part.part(headers, file, length);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Part part : parts) part.close();
+    }
+}
@@ -22,7 +22,7 @@ public class LastExceptionsHandler implements HttpHandler {
     public Response handle(final Request request) throws Exception {
         try {
             final Response response = handler.handle(request);
-            response.entity().writer(catchStreamingExceptions(request, response.entity().writer()));
+            if (response.entity().isStreaming()) response.entity().writer(catchStreamingExceptions(request, response.entity().writer()));
             return response;
         } catch (Exception e) {
             lastExceptions.put(request, e);
@@ -2,6 +2,8 @@ package com.googlecode.utterlyidle.rendering.exceptions;
 
 import com.googlecode.totallylazy.Exceptions;
 import com.googlecode.totallylazy.functions.Function1;
+import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.EntityTooLargeException;
 import com.googlecode.utterlyidle.Request;
 
 import java.util.Date;
@@ -18,8 +20,13 @@ public class StoredException {
     }
 
     private static Request forceInMemory(final Request request) {
-        request.toString();
-        return request;
+        try {
+            request.toString();
+            return request;
+        } catch (Exception e) {
+            if (!EntityTooLargeException.isCause(e)) throw e;
+            return request.entity(Entity.empty());
+        }
     }
 
     public Date getDate() {
@@ -15,11 +15,13 @@ import com.googlecode.utterlyidle.rendering.ExceptionRenderer;
 import com.googlecode.utterlyidle.services.Service;
 import com.googlecode.yadic.Container;
 
+import java.nio.ByteBuffer;
 import java.util.Date;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 
 import static com.googlecode.totallylazy.Option.option;
+import static com.googlecode.totallylazy.Strings.bytes;
 import static com.googlecode.totallylazy.Strings.isEmpty;
 import static com.googlecode.totallylazy.predicates.Predicates.is;
 import static com.googlecode.totallylazy.predicates.Predicates.where;
@@ -122,7 +124,7 @@ public class HttpScheduler implements Service {
 
     private void schedule(Record record) {
         Option<String> start = option(isEmpty(record.get(SchedulesDefinition.start)) ? null : record.get(SchedulesDefinition.start));
-        scheduler.schedule(record.get(SchedulesDefinition.scheduleId), httpTask(record.get(SchedulesDefinition.scheduleId), application, parseRequest(record.get(SchedulesDefinition.request))), start.map(toStart()), record.get(SchedulesDefinition.interval));
+        scheduler.schedule(record.get(SchedulesDefinition.scheduleId), httpTask(record.get(SchedulesDefinition.scheduleId), application, parseRequest(ByteBuffer.wrap(bytes(record.get(SchedulesDefinition.request))))), start.map(toStart()), record.get(SchedulesDefinition.interval));
     }
 
     private Function1<String, Date> toStart() {
@@ -58,8 +58,13 @@ public class ApplicationServlet extends HttpServlet {
         }
     }
 
-    @SuppressWarnings({"deprecation"})
     public static void transfer(Response source, HttpServletResponse destination) throws IOException {
+        transferHeaders(source, destination);
+        using(destination.getOutputStream(), source.entity().writer());
+    }
+
+    @SuppressWarnings({"deprecation"})
+    public static void transferHeaders(Response source, HttpServletResponse destination) {
         Status status = source.status();
         destination.setStatus(status.code(), status.description());
         for (Pair<String, String> pair : source.headers()) {
@@ -68,7 +73,6 @@ public class ApplicationServlet extends HttpServlet {
         for (String length : source.headers().valueOption(HttpHeaders.CONTENT_LENGTH)) {
             destination.setContentLength(Integer.parseInt(length));
         }
-        using(destination.getOutputStream(), source.entity().writer());
     }
 
     public static Request request(HttpServletRequest servletRequest) {
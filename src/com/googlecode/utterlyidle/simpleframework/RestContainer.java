@@ -5,6 +5,7 @@ import com.googlecode.totallylazy.functions.Function1;
 import com.googlecode.totallylazy.functions.Function2;
 import com.googlecode.utterlyidle.Application;
 import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.EntitySizeLimit;
 import com.googlecode.utterlyidle.HeaderParameters;
 import com.googlecode.utterlyidle.HttpHeaders;
 import com.googlecode.utterlyidle.QueryParameters;
@@ -23,6 +24,7 @@ import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.io.Uri.uri;
 import static com.googlecode.utterlyidle.ClientAddress.clientAddress;
 import static com.googlecode.utterlyidle.HeaderParameters.headerParameters;
+import static com.googlecode.utterlyidle.LimitedInputStream.limitedInputStream;
 import static com.googlecode.utterlyidle.MediaType.TEXT_PLAIN;
 import static com.googlecode.utterlyidle.Protocol.HTTP;
 import static com.googlecode.utterlyidle.Protocol.HTTPS;
@@ -31,9 +33,15 @@ import static com.googlecode.utterlyidle.Status.INTERNAL_SERVER_ERROR;
 
 public class RestContainer implements Container {
     private final Application application;
+    private final long maxEntitySize;
 
     public RestContainer(Application application) {
+        this(application, EntitySizeLimit.NO_LIMIT);
+    }
+
+    public RestContainer(Application application, long maxEntitySize) {
         this.application = application;
+        this.maxEntitySize = maxEntitySize;
     }
 
     public void handle(Request request, Response response) {
@@ -75,7 +83,7 @@ public class RestContainer implements Container {
     }
 
     private com.googlecode.utterlyidle.Request request(Request frameworkRequest) throws IOException {
-        com.googlecode.utterlyidle.Request request = com.googlecode.utterlyidle.Request.request(frameworkRequest.getMethod(), uri(frameworkRequest.getPath().toString()).query(query(frameworkRequest).toString()), headers(frameworkRequest), Entity.entity(frameworkRequest.getInputStream()));
+        com.googlecode.utterlyidle.Request request = com.googlecode.utterlyidle.Request.request(frameworkRequest.getMethod(), uri(frameworkRequest.getPath().toString()).query(query(frameworkRequest).toString()), headers(frameworkRequest), Entity.entity(limitedInputStream(frameworkRequest.getInputStream(), maxEntitySize)));
         return requestEnricher(
                 clientAddress(frameworkRequest.getClientAddress().getAddress()),
                 frameworkRequest.isSecure() ? HTTPS : HTTP)
@@ -56,7 +56,7 @@ public class RestServer implements Server {
     }
 
     private SocketConnection startUpApp(Application application, ServerConfiguration configuration) throws IOException {
-        Container container = new RestContainer(application);
+        Container container = new RestContainer(application, configuration.maxEntitySize());
         SocketConnection connection = new SocketConnection(new ContainerSocketProcessor(container, configuration.maxThreadNumber()));
         InetSocketAddress socketAddress = (InetSocketAddress) connection.connect(new InetSocketAddress(configuration.bindAddress(), configuration.port()),
                 configuration.sslContext().getOrNull());
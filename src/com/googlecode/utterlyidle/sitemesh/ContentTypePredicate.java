@@ -1,25 +1,32 @@
 package com.googlecode.utterlyidle.sitemesh;
 
 import com.googlecode.totallylazy.Pair;
-import com.googlecode.totallylazy.Strings;
 import com.googlecode.totallylazy.predicates.LogicalPredicate;
 import com.googlecode.totallylazy.predicates.Predicate;
+import com.googlecode.utterlyidle.MediaType;
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
 
 import static com.googlecode.totallylazy.functions.Callables.second;
 import static com.googlecode.totallylazy.predicates.Predicates.where;
 import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
+import static com.googlecode.utterlyidle.MediaType.mediaType;
 
 public class ContentTypePredicate implements Predicate<Response> {
     private final String value;
+    private final MediaType mediaType;
 
     private ContentTypePredicate(String value) {
         this.value = value;
+        this.mediaType = mediaType(value);
     }
 
     public boolean matches(Response response) {
-        return response.header(CONTENT_TYPE).exists(Strings.contains(value));
+        for (String contentType : response.header(CONTENT_TYPE)) {
+            if (mediaType.subtype().isEmpty()) return contentType.contains(value);
+            return mediaType.includes(mediaType(contentType));
+        }
+        return false;
     }
 
     public static Predicate<Response> containsContentType(final String value) {
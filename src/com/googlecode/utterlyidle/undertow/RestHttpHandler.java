@@ -1,22 +1,30 @@
 package com.googlecode.utterlyidle.undertow;
 
 import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.functions.Block;
 import com.googlecode.totallylazy.functions.Function2;
 import com.googlecode.totallylazy.io.Uri;
 import com.googlecode.utterlyidle.Application;
 import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.EntitySizeLimit;
 import com.googlecode.utterlyidle.HeaderParameters;
 import com.googlecode.utterlyidle.HttpHeaders;
 import com.googlecode.utterlyidle.QueryParameters;
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
+import io.undertow.io.BufferWritableOutputStream;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HttpString;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import static com.googlecode.totallylazy.Closeables.using;
 import static com.googlecode.totallylazy.Exceptions.printStackTrace;
@@ -24,6 +32,7 @@ import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.utterlyidle.ClientAddress.clientAddress;
 import static com.googlecode.utterlyidle.HeaderParameters.headerParameters;
+import static com.googlecode.utterlyidle.LimitedInputStream.limitedInputStream;
 import static com.googlecode.utterlyidle.MediaType.TEXT_PLAIN;
 import static com.googlecode.utterlyidle.RequestEnricher.requestEnricher;
 import static com.googlecode.utterlyidle.Status.INTERNAL_SERVER_ERROR;
@@ -31,9 +40,15 @@ import static java.lang.Integer.parseInt;
 
 class RestHttpHandler implements HttpHandler {
     private final Application application;
+    private final long maxEntitySize;
 
     public RestHttpHandler(Application application) {
+        this(application, EntitySizeLimit.NO_LIMIT);
+    }
+
+    public RestHttpHandler(Application application, long maxEntitySize) {
         this.application = application;
+        this.maxEntitySize = maxEntitySize;
     }
 
     @Override
@@ -62,7 +77,30 @@ class RestHttpHandler implements HttpHandler {
         for (String integer : applicationResponse.headers().valueOption(HttpHeaders.CONTENT_LENGTH)) {
             exchange.setResponseContentLength(parseInt(integer));
         }
-        using(exchange.getOutputStream(), applicationResponse.entity().writer());
+        OutputStream outputStream = exchange.getOutputStream();
+        Object value = applicationResponse.entity().value();
+        if (outputStream instanceof BufferWritableOutputStream && applicationResponse.entity().isTransferable() && (value instanceof File || value instanceof ByteBuffer)) {
+            using(outputStream, transfer(value));
+            return;
+        }
+        using(outputStream, applicationResponse.entity().writer());
+    }
+
+    /**
+     * Lets Undertow send files with FileChannel.transferTo and write buffers straight to the channel instead of
+     * copying them through the OutputStream.
+     */
+    private static Block<OutputStream> transfer(Object value) {
+        return outputStream -> {
+            BufferWritableOutputStream output = (BufferWritableOutputStream) outputStream;
+            if (value instanceof ByteBuffer) {
+                output.write(((ByteBuffer) value).duplicate());
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(((File) value).toPath(), StandardOpenOption.READ)) {
+                output.transferFrom(channel);
+            }
+        };
     }
 
     private Function2<HttpServerExchange, Pair<String, String>, HttpServerExchange> mapHeaders() {
@@ -73,7 +111,7 @@ class RestHttpHandler implements HttpHandler {
     }
 
     private Request request(HttpServerExchange exchange) throws IOException {
-        Request request = Request.request(exchange.getRequestMethod().toString(), Uri.uri(exchange.getRequestPath()).query(query(exchange).toString()), headers(exchange), Entity.entity(exchange.getInputStream()));
+        Request request = Request.request(exchange.getRequestMethod().toString(), Uri.uri(exchange.getRequestPath()).query(query(exchange).toString()), headers(exchange), Entity.entity(limitedInputStream(exchange.getInputStream(), maxEntitySize)));
         return requestEnricher(
                 clientAddress(exchange.getSourceAddress().getAddress()),
                 exchange.getRequestScheme())
@@ -71,7 +71,7 @@ public class RestServer implements com.googlecode.utterlyidle.Server {
 
         Undertow server = builder
                 .setWorkerThreads(configuration.maxThreadNumber())
-                .setHandler(new RestHttpHandler(application))
+                .setHandler(new RestHttpHandler(application, configuration.maxEntitySize()))
                 .build();
         server.start();
 
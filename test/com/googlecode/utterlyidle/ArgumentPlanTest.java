@@ -0,0 +1,135 @@
+package com.googlecode.utterlyidle;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.time.Dates;
+import com.googlecode.utterlyidle.annotations.DefaultValue;
+import com.googlecode.utterlyidle.annotations.GET;
+import com.googlecode.utterlyidle.annotations.HeaderParam;
+import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.annotations.PathParam;
+import com.googlecode.utterlyidle.annotations.QueryParam;
+import com.googlecode.utterlyidle.modules.ArgumentScopedModule;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.HttpHeaders.ACCEPT;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_MODIFIED_SINCE;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.ParametersExtractor.typeArgumentsOf;
+import static com.googlecode.utterlyidle.QueryParameters.queryParameters;
+import static com.googlecode.utterlyidle.annotations.AnnotatedBindings.annotatedClass;
+import static com.googlecode.yadic.resolvers.Resolvers.create;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ArgumentPlanTest {
+    private static final UUID ID = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8");
+    private static final UUID REF = UUID.fromString("6ba7b811-9dad-11d1-80b4-00c04fd430c8");
+    private static final Date MODIFIED = new Date(1000000000000L);
+
+    @Test
+    public void readsTheSameArgumentsAsTheArgumentScope() throws Exception {
+        Application application = application().addAnnotated(Everything.class).build();
+        Binding binding = annotatedClass(Everything.class)[0];
+        Request request = Request.get("everything/" + ID + "?name=Dan&count=3&total=4000000000&maybe=x&tag=a&tag=b&ref=" + ID + "&ref=" + REF,
+                header(ACCEPT, "text/plain"),
+                header(IF_MODIFIED_SINCE, Dates.RFC822().format(MODIFIED)));
+
+        Object[] planned = binding.argumentPlan().extract(request, application);
+        List<Pair<Type, Option<Parameter>>> parameters = binding.parameters().toList();
+
+        assertThat(planned.length, is(binding.numberOfArguments()));
+        for (int i = 0; i < planned.length; i++) {
+            Object resolved = viaArgumentScope(application, binding, request, parameters.get(i));
+            assertThat("argument " + i, comparable(planned[i]), is(comparable(resolved)));
+        }
+    }
+
+    @Test
+    public void argumentScopedModulesStillProvideTheTypesThePlanDoesNotRead() throws Exception {
+        String response = application().
+                add((ArgumentScopedModule) container -> container.addInstance(Greeting.class, new Greeting("Howdy"))).
+                addAnnotated(Greeter.class).
+                responseAsString(Request.get("greet?name=Dan"));
+
+        assertThat(response, is("Howdy Dan"));
+    }
+
+    @Test
+    public void argumentScopedOverridesOfTheTypesThePlanReadsDoNotApply() throws Exception {
+        String response = application().
+                add((ArgumentScopedModule) container -> {
+                    container.remove(QueryParameters.class);
+                    return container.addInstance(QueryParameters.class, queryParameters().add("name", "Matt"));
+                }).
+                addAnnotated(Greeter.class).
+                responseAsString(Request.get("plain?name=Dan"));
+
+        assertThat(response, is("Hello Dan"));
+    }
+
+    private static Object viaArgumentScope(Application application, Binding binding, Request request, Pair<Type, Option<Parameter>> pair) {
+        return application.usingArgumentScope(request, container -> {
+            container.addInstance(UriTemplate.class, binding.uriTemplate());
+            for (Parameter parameter : pair.second()) parameter.addTo(container);
+            for (Type type : typeArgumentsOf(pair.first())) {
+                if (!container.contains(type)) container.addType(type, create(type, container));
+            }
+            return container.resolve(pair.first());
+        });
+    }
+
+    private static Object comparable(Object value) {
+        if (value instanceof Iterable) return sequence((Iterable<?>) value).toList();
+        return value;
+    }
+
+    public static class Everything {
+        @GET
+        @Path("everything/{id}")
+        public String get(@PathParam("id") UUID id,
+                          @QueryParam("name") String name,
+                          @QueryParam("count") int count,
+                          @QueryParam("total") long total,
+                          @QueryParam("missing") @DefaultValue("fallback") String fallback,
+                          @QueryParam("maybe") Option<String> maybe,
+                          @QueryParam("absent") Option<String> absent,
+                          @QueryParam("tag") Iterable<String> tags,
+                          @QueryParam("ref") Iterable<UUID> refs,
+                          @HeaderParam(ACCEPT) String accept,
+                          @HeaderParam(IF_MODIFIED_SINCE) Date modified,
+                          Request request,
+                          QueryParameters query) {
+            return "everything";
+        }
+    }
+
+    public static class Greeting {
+        private final String value;
+
+        public Greeting(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class Greeter {
+        @GET
+        @Path("greet")
+        public String greet(Greeting greeting, @QueryParam("name") String name) {
+            return greeting.value + " " + name;
+        }
+
+        @GET
+        @Path("plain")
+        public String plain(@QueryParam("name") String name) {
+            return "Hello " + name;
+        }
+    }
+}
@@ -44,6 +44,13 @@ public class ConsumesMimeMatcherTest {
         assertThat(matcher.matches(Request.request("GET", uri, headerParameters().add(CONTENT_TYPE, APPLICATION_FORM_URLENCODED + "; charset=UTF-8"), Entity.entity(null))), is(true));
     }
 
+    @Test
+    public void matchesSubtypeWildcardButNotAPrefixOfTheSubtype() throws Exception {
+        Request json = Request.request("POST", uri, headerParameters().add(CONTENT_TYPE, "Application/JSON"), Entity.entity(null));
+        assertThat(new ConsumesMimeMatcher(sequence("application/*")).matches(json), is(true));
+        assertThat(new ConsumesMimeMatcher(sequence("application/js")).matches(json), is(false));
+    }
+
     @Test
     public void simpleMisMatch() throws Exception {
         Predicate<Request> matcher = new ConsumesMimeMatcher(sequence(APPLICATION_ATOM_XML));
@@ -3,15 +3,20 @@ package com.googlecode.utterlyidle;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 
 import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.utterlyidle.ByteSlice.byteSlice;
 import static com.googlecode.utterlyidle.Entities.inputStreamOf;
 import static com.googlecode.utterlyidle.Entities.streamingOutputOf;
 import static com.googlecode.utterlyidle.Entities.streamingWriterOf;
 import static com.googlecode.utterlyidle.Entity.entity;
+import static com.googlecode.utterlyidle.KnownLengthInputStream.knownLength;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
@@ -64,6 +69,44 @@ public class EntityTest {
         assertThat(entity(streamingOutputOf("Hello")).length(), is(none(Integer.class)));
     }
 
+    @Test
+    public void knowsTheLengthOfValuesWithoutWritingThem() throws Exception {
+        File file = File.createTempFile("entity", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "Hello file".getBytes("UTF-8"));
+
+        assertThat(entity("h\u00e9llo \u20ac \ud83d\ude00").length(), is(some("h\u00e9llo \u20ac \ud83d\ude00".getBytes("UTF-8").length)));
+        assertThat(entity(byteSlice("Hello World".getBytes(), 6, 5)).length(), is(some(5)));
+        assertThat(entity(ByteBuffer.wrap("Hello".getBytes())).length(), is(some(5)));
+        assertThat(entity(file).length(), is(some(10)));
+        assertThat(entity(knownLength(inputStreamOf("Hello"), 5)).length(), is(some(5)));
+    }
+
+    @Test
+    public void measuresTheOutputOnceTheWriterIsReplaced() throws Exception {
+        Entity entity = entity("Hello");
+        entity.writer(outputStream -> outputStream.write("Hello World".getBytes("UTF-8")));
+
+        assertThat(entity.isTransferable(), is(false));
+        assertThat(entity.length(), is(some(11)));
+        assertThat(entity.toString(), is("Hello World"));
+        assertThat(entity(streamingOutputOf("Hello")).writer(outputStream -> {}).length(), is(none(Integer.class)));
+    }
+
+    @Test
+    public void writesKnownLengthValues() throws Exception {
+        File file = File.createTempFile("entity", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "Hello file".getBytes("UTF-8"));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(5);
+        buffer.put("Hello".getBytes()).flip();
+
+        assertThat(entity(byteSlice("Hello World".getBytes(), 6, 5)).toString(), is("World"));
+        assertThat(entity(buffer).toString(), is("Hello"));
+        assertThat(entity(file).toString(), is("Hello file"));
+        assertThat(entity(knownLength(inputStreamOf("Hello"), 5)).toString(), is("Hello"));
+    }
+
     @Test
     public void shouldSupportInputStream() throws Exception {
         assertThat(entity(inputStreamOf("Foo")).toString(), is("Foo"));
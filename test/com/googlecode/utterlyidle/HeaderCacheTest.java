@@ -0,0 +1,40 @@
+package com.googlecode.utterlyidle;
+
+import org.junit.Test;
+
+import static com.googlecode.utterlyidle.Accept.accept;
+import static com.googlecode.utterlyidle.HeaderCache.headerCache;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class HeaderCacheTest {
+    @Test
+    public void parsesEachRawValueOnce() throws Exception {
+        HeaderCache<Accept> cache = headerCache(Accept::accept);
+        Accept first = cache.get("text/html;q=0.9, */*;q=0.1");
+        Accept second = cache.get("text/html;q=0.9, */*;q=0.1");
+
+        assertThat(second, sameInstance(first));
+        assertThat(cache.misses(), is(1L));
+        assertThat(cache.hits(), is(1L));
+    }
+
+    @Test
+    public void staysWithinItsMaximumSize() throws Exception {
+        HeaderCache<String> cache = headerCache(String::toUpperCase, 2);
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+
+        assertThat(cache.size(), lessThanOrEqualTo(2));
+        assertThat(cache.get("c"), is("C"));
+    }
+
+    @Test
+    public void acceptHeadersAreShared() throws Exception {
+        assertThat(accept("application/json, text/plain;q=0.5"), sameInstance(accept("application/json, text/plain;q=0.5")));
+        assertThat(accept("application/json, text/plain;q=0.5").quality("text/plain"), is(0.5f));
+    }
+}
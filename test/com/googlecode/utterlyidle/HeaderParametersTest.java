@@ -33,6 +33,25 @@ public class HeaderParametersTest extends ParametersContract<HeaderParameters> {
         return headerParameters();
     }
 
+    @Test
+    public void looksUpNamesIgnoringCaseAndKeepsDuplicatesInOrder() throws Exception {
+        HeaderParameters headers = headerParameters(pair("Accept", APPLICATION_JSON), pair("X-Other", "other"), pair("ACCEPT", APPLICATION_XML));
+
+        assertThat(headers.getValue("accept"), is(APPLICATION_JSON));
+        assertThat(headers.getValues("Accept").toList(), is(list(APPLICATION_JSON, APPLICATION_XML)));
+        assertThat(headers.contains("x-other"), is(true));
+        assertThat(headers.contains("missing"), is(false));
+        assertThat(headers.valueOption("missing").isEmpty(), is(true));
+        assertThat(headers.remove("accept").getValues("Accept").isEmpty(), is(true));
+        assertThat(headers.replace("x-other", "replaced").getValue("X-Other"), is("replaced"));
+    }
+
+    @Test
+    public void removingAMissingHeaderReturnsTheSameHeaders() throws Exception {
+        HeaderParameters headers = headerParameters(pair(ACCEPT, APPLICATION_JSON));
+        assertThat(headers.remove("missing") == headers, is(true));
+    }
+
     @Test
     public void toStringMatchesRfc2616() throws Exception {
         assertEquals(headerParameters().toString(), "");
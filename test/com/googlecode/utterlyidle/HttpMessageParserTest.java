@@ -4,6 +4,10 @@ import com.googlecode.totallylazy.Pair;
 import com.googlecode.utterlyidle.Request.Builder;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import static com.googlecode.totallylazy.Strings.bytes;
 import static com.googlecode.totallylazy.io.Uri.uri;
 import static com.googlecode.utterlyidle.HttpMessageParser.parseRequest;
 import static com.googlecode.utterlyidle.HttpMessageParser.parseResponse;
@@ -155,6 +159,96 @@ public class HttpMessageParserTest {
         assertThat(responseWithUnixNewlines.entity().toString(), is("Hello\n\nJoe"));
     }
 
+    @Test
+    public void parsesRequestsFromBytes() {
+        Request request = Request.post("/my/path",
+                HttpMessage.Builder.header("header 1", "header 1 value"),
+                form("form 1", "form 1 value"));
+
+        assertThat(parseRequest(new ByteArrayInputStream(bytes(request.toString()))), is(request));
+        assertThat(parseRequest(ByteBuffer.wrap(bytes(request.toString()))), is(request));
+        assertThat(parseRequest(ByteBuffer.wrap(bytes(" put  /path  HTTP/1.1 \r\n Content-Type :  text/plain \r\n\r\n body "))).method(), is(PUT));
+    }
+
+    @Test
+    public void parsesResponsesFromBytes() {
+        Response response = parseResponse(ByteBuffer.wrap(bytes(" HTTP/1.1  404  Not Found \n Content-Type: text/plain \n\nHello\r\n\r\nJoe")));
+
+        assertThat(response.status(), is(NOT_FOUND));
+        assertThat(response.header("Content-Type").get(), is("text/plain"));
+        assertThat(response.entity().toString(), is("Hello\r\n\r\nJoe"));
+    }
+
+    @Test
+    public void bodyFromBytesStopsAtContentLengthWithoutMovingTheBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes("HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nHello and more"));
+        Response response = parseResponse(buffer);
+
+        assertThat(response.entity().length().get(), is(5));
+        assertThat(response.entity().toString(), is("Hello"));
+        assertThat(buffer.position(), is(0));
+        assertThat(parseResponse(new ByteArrayInputStream(bytes("HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nHello and more"))).entity().toString(), is("Hello"));
+    }
+
+    @Test
+    public void bodyFromAStreamIsStreamed() {
+        Request request = parseRequest(new ByteArrayInputStream(bytes("POST /path HTTP/1.1\r\n\r\nline 1\nline 2")));
+
+        assertThat(request.entity().isStreaming(), is(true));
+        assertThat(request.entity().toString(), is("line 1\nline 2"));
+    }
+
+    @Test
+    public void invalidBytesParsingErrors() {
+        invalidRequestWithError(ByteBuffer.wrap(bytes("")), "Http Message without a start line");
+        invalidRequestWithError(ByteBuffer.wrap(bytes("GET HTTP/1.1")), "Request without a path");
+        invalidRequestWithError(ByteBuffer.wrap(bytes("/test HTTP/1.1")), "Request without a valid method");
+        invalidResponseWithError(ByteBuffer.wrap(bytes("HTTP/1.1 \r\n\r\n")), "Response without a status code");
+        invalidResponseWithError(ByteBuffer.wrap(bytes("HTTP/1.0 OK\r\n\r\n")), "Response without a status code");
+    }
+
+    @Test
+    public void rejectsContentLengthsThatAreNotANumber() {
+        invalidRequestWithError(ByteBuffer.wrap(bytes("POST /path HTTP/1.1\r\nContent-Length: five\r\n\r\nHello")), "Invalid Content-Length");
+        invalidRequestWithError(ByteBuffer.wrap(bytes("POST /path HTTP/1.1\r\nContent-Length: 99999999999999999999\r\n\r\nHello")), "Invalid Content-Length");
+        try {
+            parseRequest(new ByteArrayInputStream(bytes("POST /path HTTP/1.1\r\nContent-Length: 5x\r\n\r\nHello")));
+            fail("Should not parse invalid request");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Invalid Content-Length"));
+        }
+    }
+
+    @Test
+    public void rejectsNegativeContentLengths() {
+        invalidRequestWithError(ByteBuffer.wrap(bytes("POST /path HTTP/1.1\r\nContent-Length: -1\r\n\r\nHello")), "Invalid Content-Length");
+        invalidResponseWithError(ByteBuffer.wrap(bytes("HTTP/1.1 200 OK\r\nContent-Length: -5\r\n\r\nHello")), "Invalid Content-Length");
+    }
+
+    @Test
+    public void rejectsContentLengthsLongerThanTheBody() {
+        invalidRequestWithError(ByteBuffer.wrap(bytes("POST /path HTTP/1.1\r\nContent-Length: 6\r\n\r\nHello")), "Content-Length longer than the body");
+        invalidResponseWithError(ByteBuffer.wrap(bytes("HTTP/1.1 200 OK\r\nContent-Length: 2147483648\r\n\r\nHello")), "Content-Length longer than the body");
+    }
+
+    private void invalidRequestWithError(ByteBuffer request, String exceptionMessage) {
+        try {
+            parseRequest(request);
+            fail("Should not parse invalid request");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(exceptionMessage));
+        }
+    }
+
+    private void invalidResponseWithError(ByteBuffer response, String exceptionMessage) {
+        try {
+            parseResponse(response);
+            fail("Should not parse invalid response");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(exceptionMessage));
+        }
+    }
+
     private void invalidRequestWithError(String request, String exceptionMessage) {
         try {
             parseRequest(request);
@@ -1,17 +1,25 @@
 package com.googlecode.utterlyidle;
 
+import com.googlecode.totallylazy.Sequences;
 import com.googlecode.utterlyidle.annotations.DefaultValue;
 import com.googlecode.utterlyidle.annotations.GET;
 import com.googlecode.utterlyidle.annotations.Path;
 import com.googlecode.utterlyidle.annotations.PathParam;
 import com.googlecode.utterlyidle.annotations.Priority;
 import com.googlecode.utterlyidle.annotations.QueryParam;
+import com.googlecode.utterlyidle.dsl.BindingBuilder;
+import com.googlecode.utterlyidle.dsl.DslTest;
 import org.junit.Test;
 
+import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.proxy.Call.method;
+import static com.googlecode.totallylazy.proxy.Call.on;
 import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.MatchQuality.matchQuality;
 import static com.googlecode.utterlyidle.Request.get;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class MatchQualityTest {
     @Test
@@ -25,6 +33,18 @@ public class MatchQualityTest {
         assertThat(application().addAnnotated(Loser.class).responseAsString(Request.get("loser?firstName=Stuart")), is("Hello Stuart with a shoe size of 10.5"));
     }
 
+    @Test
+    public void picksTheFirstOfTheBestBindingsWithoutSorting() throws Exception {
+        Binding html = BindingBuilder.get("page").produces(MediaType.TEXT_HTML).resource(method(on(DslTest.Bar.class).hello())).build();
+        Binding xml = BindingBuilder.get("page").produces(MediaType.TEXT_XML).resource(method(on(DslTest.Bar.class).hello())).build();
+        Binding otherXml = BindingBuilder.get("page").produces(MediaType.TEXT_XML).resource(method(on(DslTest.Bar.class).hello())).build();
+        Request request = RequestBuilder.get("page").accepting("text/html;q=0.5, text/xml").build();
+
+        assertThat(matchQuality(request).best(sequence(html, xml, otherXml)).get(), sameInstance(xml));
+        assertThat(matchQuality(request).best(sequence(otherXml, xml)).get(), sameInstance(otherXml));
+        assertThat(matchQuality(request).best(Sequences.<Binding>empty()).isEmpty(), is(true));
+    }
+
     @Path("user")
     public static class User {
         @GET
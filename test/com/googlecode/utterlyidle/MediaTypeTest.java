@@ -0,0 +1,44 @@
+package com.googlecode.utterlyidle;
+
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.utterlyidle.MediaType.mediaType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class MediaTypeTest {
+    @Test
+    public void parsesTypeSubtypeAndParameters() throws Exception {
+        MediaType mediaType = mediaType("Text/HTML; charset=\"UTF-8\"; level=1");
+        assertThat(mediaType.type(), is("text"));
+        assertThat(mediaType.subtype(), is("html"));
+        assertThat(mediaType.parameter("Charset").get(), is("UTF-8"));
+        assertThat(mediaType.parameter("level").get(), is("1"));
+        assertThat(mediaType.parameter("q").isEmpty(), is(true));
+        assertThat(mediaType.toString(), is("Text/HTML; charset=\"UTF-8\"; level=1"));
+    }
+
+    @Test
+    public void internsByRawValue() throws Exception {
+        assertThat(mediaType(MediaType.TEXT_PLAIN), sameInstance(mediaType(MediaType.TEXT_PLAIN)));
+    }
+
+    @Test
+    public void matchesWildcardsEitherWay() throws Exception {
+        assertThat(mediaType("*/*").matches(mediaType("image/png")), is(true));
+        assertThat(mediaType("image/png").matches(mediaType("image/*")), is(true));
+        assertThat(mediaType("image/*").matches(mediaType("text/plain")), is(false));
+        assertThat(mediaType("text/html").matches(mediaType("TEXT/html")), is(true));
+        assertThat(mediaType("text/html").matches(mediaType("text/html;level=1")), is(false));
+        assertThat(mediaType("*").matches(mediaType("text/html")), is(false));
+    }
+
+    @Test
+    public void aRangeIncludesTypesWithExtraParameters() throws Exception {
+        assertThat(mediaType("application/x-www-form-urlencoded").includes(mediaType("application/x-www-form-urlencoded; charset=UTF-8")), is(true));
+        assertThat(mediaType("text/*").includes(mediaType("text/css")), is(true));
+        assertThat(mediaType("text/html; charset=UTF-8").includes(mediaType("text/html")), is(false));
+        assertThat(mediaType("text/html").includes(mediaType("text/htmlx")), is(false));
+    }
+}
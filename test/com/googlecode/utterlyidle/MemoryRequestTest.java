@@ -36,6 +36,27 @@ public class MemoryRequestTest {
                 ));
     }
 
+    @Test
+    public void parsesQueryFormAndCookiesOnce() throws Exception {
+        Request request = post("/path?a=1&b=2", form("name", "dan"), header("Cookie", "size=large"));
+
+        assertThat(request.query() == request.query(), is(true));
+        assertThat(request.form() == request.form(), is(true));
+        assertThat(request.cookies() == request.cookies(), is(true));
+        assertThat(request.form().getValue("name"), is("dan"));
+        assertThat(request.cookies().getValue("size"), is("large"));
+    }
+
+    @Test
+    public void replacingPartsOfARequestParsesThemAgain() throws Exception {
+        Request request = post("/path?a=1", form("name", "dan"), header("Cookie", "size=large"));
+
+        assertThat(request.query("a", "2").query().getValue("a"), is("2"));
+        assertThat(request.form("name", "matt").form().getValue("name"), is("matt"));
+        assertThat(request.header("Cookie", "size=small").cookies().getValue("size"), is("small"));
+        assertThat(request.query().getValue("a"), is("1"));
+    }
+
     @Test
     public void toStringCanBeCalledMultipleTimes() throws Exception {
         Request request = Request.request("GET", uri("smoosh"), HeaderParameters.headerParameters(), Entity.entity("some input".getBytes()));
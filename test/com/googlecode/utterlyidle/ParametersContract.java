@@ -2,7 +2,10 @@ package com.googlecode.utterlyidle;
 
 import org.junit.Test;
 
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
 public abstract class ParametersContract<T extends Parameters<T>> {
@@ -14,4 +17,15 @@ public abstract class ParametersContract<T extends Parameters<T>> {
 
         assertThat(result.getValues("message"), hasExactly("hello world"));
     }
+
+    @Test
+    public void canReplaceSeveralParametersAtOnce() throws Exception {
+        T result = parameters().add("message", "of peace").add("other", "kept").add("message", "of war").add("gone", "soon").
+                replace(sequence(pair("message", "hello world"), pair("gone", null), pair("new", 1)));
+
+        assertThat(result.getValues("message"), hasExactly("hello world"));
+        assertThat(result.getValues("other"), hasExactly("kept"));
+        assertThat(result.contains("gone"), is(false));
+        assertThat(result.getValues("new"), hasExactly("1"));
+    }
 }
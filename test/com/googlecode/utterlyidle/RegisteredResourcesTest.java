@@ -0,0 +1,25 @@
+package com.googlecode.utterlyidle;
+
+import com.googlecode.utterlyidle.dsl.DslTest;
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.proxy.Call.method;
+import static com.googlecode.totallylazy.proxy.Call.on;
+import static com.googlecode.utterlyidle.dsl.BindingBuilder.get;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class RegisteredResourcesTest {
+    @Test
+    public void findsTheFirstBindingForAMethod() throws Exception {
+        Binding first = get("first").resource(method(on(DslTest.Bar.class).hello())).build();
+        Binding second = get("second").resource(method(on(DslTest.Bar.class).hello())).build();
+        RegisteredResources resources = new RegisteredResources();
+        resources.add(first);
+        resources.add(second);
+
+        assertThat(resources.find(DslTest.Bar.class.getMethod("hello")).get(), sameInstance(first));
+        assertThat(resources.find(Object.class.getMethod("toString")).isEmpty(), is(true));
+    }
+}
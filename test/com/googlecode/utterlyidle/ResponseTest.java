@@ -1,12 +1,18 @@
 package com.googlecode.utterlyidle;
 
+import com.googlecode.totallylazy.time.Dates;
 import com.googlecode.utterlyidle.cookies.Cookie;
 import org.junit.Test;
 
 import static com.googlecode.totallylazy.Assert.assertThat;
+import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.predicates.Predicates.is;
 import static com.googlecode.totallylazy.time.Dates.date;
+import static com.googlecode.utterlyidle.HttpHeaders.CACHE_CONTROL;
+import static com.googlecode.utterlyidle.HttpHeaders.EXPIRES;
 import static com.googlecode.utterlyidle.HttpHeaders.LOCATION;
 import static com.googlecode.utterlyidle.Status.*;
 import static com.googlecode.utterlyidle.cookies.Cookie.cookie;
@@ -36,4 +42,15 @@ public class ResponseTest {
         Response response = Response.ok().cookie(cookie);
         assertThat(response.cookies().get(cookie.name()), is(some(cookie)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void replacesSeveralHeadersAtOnce() throws Exception {
+        Response response = Response.ok().header(CACHE_CONTROL, "no-cache").header(LOCATION, "/old").
+                replaceHeaders(sequence(pair(CACHE_CONTROL, "public, max-age=60"), pair(EXPIRES, date(2001, 1, 1)), pair(LOCATION, null)));
+
+        assertThat(response.headers(CACHE_CONTROL).toList().size(), is(1));
+        assertThat(response.header(CACHE_CONTROL), is(some("public, max-age=60")));
+        assertThat(response.header(EXPIRES), is(some(Dates.RFC822().format(date(2001, 1, 1)))));
+        assertThat(response.header(LOCATION), is(none(String.class)));
+    }
+}
@@ -3,6 +3,7 @@ package com.googlecode.utterlyidle;
 import com.googlecode.totallylazy.functions.Callables;
 import com.googlecode.utterlyidle.annotations.GET;
 import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.modules.RequestScopedModule;
 import com.googlecode.utterlyidle.modules.ResourcesModule;
 import com.googlecode.utterlyidle.services.Service;
 import com.googlecode.utterlyidle.services.Services;
@@ -102,6 +103,47 @@ public class RestApplicationTest {
         assertThat(response.status(), is(Status.OK));
     }
 
+    @Test
+    public void createsOnlyTheResourcesARequestUsesAndCreatesThemForEachRequest() throws Exception {
+        ApplicationBuilder application = application().
+                addAnnotated(Counted.class).
+                addAnnotated(DependsOnCloseCounter.class);
+        application.handle(Request.get("/counted"));
+        application.handle(Request.get("/counted"));
+
+        assertThat(Counted.instances.get(), is(2));
+        assertThat(started[0], is(0));
+    }
+
+    @Test
+    public void requestModulesCanStillProvideAResource() throws Exception {
+        Response response = application().
+                addAnnotated(Counted.class).
+                add((RequestScopedModule) container -> container.addInstance(Counted.class, new Counted() {
+                    @Override
+                    public String get() {
+                        return "provided";
+                    }
+                })).
+                handle(Request.get("/counted"));
+
+        assertThat(response.entity().toString(), is("provided"));
+    }
+
+    public static class Counted {
+        private static final AtomicInteger instances = new AtomicInteger();
+
+        public Counted() {
+            instances.incrementAndGet();
+        }
+
+        @GET
+        @Path("counted")
+        public String get() {
+            return "counted";
+        }
+    }
+
     public static class Foo {
         @GET
         @Path("")
@@ -118,6 +160,7 @@ public class RestApplicationTest {
     public void setUp() throws Exception {
         started[0] = 0;
         stopped[0] = 0;
+        Counted.instances.set(0);
     }
 
     private static final int[] started = new int[]{0};
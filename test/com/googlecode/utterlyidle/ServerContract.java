@@ -1,9 +1,12 @@
 package com.googlecode.utterlyidle;
 
 import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.functions.Lazy;
 import com.googlecode.totallylazy.predicates.Predicates;
 import com.googlecode.totallylazy.time.Dates;
 import com.googlecode.utterlyidle.ClientConfiguration.Builder;
+import com.googlecode.utterlyidle.annotations.GET;
+import com.googlecode.utterlyidle.annotations.Path;
 import com.googlecode.utterlyidle.examples.HelloWorldApplication;
 import com.googlecode.utterlyidle.handlers.ClientHttpHandler;
 import com.googlecode.utterlyidle.rendering.exceptions.LastExceptions;
@@ -17,7 +20,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import javax.net.ssl.SSLContext;
+import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.totallylazy.Sequences.sequence;
@@ -61,7 +66,7 @@ public abstract class ServerContract<T extends Server> {
     }
 
     private T configureServer(final ServerConfiguration configuration) throws Exception {
-        return cast(application(HelloWorldApplication.class).start(configuration.basePath(basePath("base/path")).serverClass(server())));
+        return cast(application(HelloWorldApplication.class).addAnnotated(HelloFile.class).start(configuration.basePath(basePath("base/path")).serverClass(server())));
     }
 
     @After
@@ -77,6 +82,15 @@ public abstract class ServerContract<T extends Server> {
         assertThat(response.entity().toString(), is("chunk"));
     }
 
+    @Test
+    public void handlesFiles() throws Exception {
+        Response response = handle(Request.get("file"), server);
+
+        assertThat(response.status(), is(Status.OK));
+        assertThat(response.header(CONTENT_LENGTH).get(), is("10"));
+        assertThat(response.entity().toString(), is("Hello file"));
+    }
+
     @Test
     public void shouldCaptureStreamingExceptions() throws Exception {
         final Sequence<StoredException> exceptions = sequence(server.application().applicationScope().get(LastExceptions.class));
@@ -251,4 +265,21 @@ public abstract class ServerContract<T extends Server> {
         }
     }
 
+    public static class HelloFile {
+        private static final Lazy<File> file = new Lazy<File>() {
+            @Override
+            protected File get() throws Exception {
+                File file = File.createTempFile("hello", ".txt");
+                file.deleteOnExit();
+                Files.write(file.toPath(), "Hello file".getBytes("UTF-8"));
+                return file;
+            }
+        };
+
+        @GET
+        @Path("file")
+        public File file() {
+            return file.apply();
+        }
+    }
 }
\ No newline at end of file
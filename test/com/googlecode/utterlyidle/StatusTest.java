@@ -0,0 +1,35 @@
+package com.googlecode.utterlyidle;
+
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.utterlyidle.Status.status;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class StatusTest {
+    @Test
+    public void returnsTheSharedInstanceForTheUsualReasonPhrase() throws Exception {
+        assertThat(status(200, "OK"), sameInstance(Status.OK));
+        assertThat(status(404), sameInstance(Status.NOT_FOUND));
+        assertThat(status(304, null), sameInstance(Status.NOT_MODIFIED));
+        assertThat(status(502, ""), sameInstance(Status.BAD_GATEWAY));
+    }
+
+    @Test
+    public void keepsAnUnusualReasonPhrase() throws Exception {
+        Status status = status(200, "Fine");
+        assertThat(status, not(sameInstance(Status.OK)));
+        assertThat(status.description(), is("Fine"));
+        assertThat(status, is(Status.OK));
+        assertThat(Status.CLIENT_TIMEOUT.description(), is("Client Timeout"));
+    }
+
+    @Test
+    public void supportsUnknownCodes() throws Exception {
+        assertThat(status(299).toString(), is("299 "));
+        assertThat(status(799, "Custom").toString(), is("799 Custom"));
+        assertThat(status(-1, "Broken").code(), is(-1));
+    }
+}
@@ -8,6 +8,7 @@ import static com.googlecode.utterlyidle.PathParameters.pathParameters;
 import static com.googlecode.utterlyidle.UriTemplate.uriTemplate;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertTrue;
 
 @SuppressWarnings("unchecked")
@@ -139,4 +140,38 @@ public class UriTemplateTest {
         UriTemplate template = uriTemplate("path/{id}");
         assertThat(template.generate(pathParameters(pair("id","foo"))), is("path/foo"));
     }
+
+    @Test
+    public void generatesTemplatesWithoutParametersOnce() {
+        UriTemplate template = uriTemplate("/path/to/resource");
+        String generated = template.generate(pathParameters());
+        assertThat(generated, is("path/to/resource"));
+        assertThat(template.generate(pathParameters(pair("id", "ignored"))), sameInstance(generated));
+        assertThat(template.generate(pathParameters(pair("$", "/more"))), is("path/to/resource/more"));
+    }
+
+    @Test
+    public void canCaptureParameterFollowedByLiteralInSameSegment() {
+        UriTemplate template = uriTemplate("path/{id}.json");
+        assertThat(template.matches("path/foo.json"), is(true));
+        assertThat(template.matches("path/.json"), is(false));
+        assertThat(template.extract("path/foo.bar.json").getValue("id"), is("foo.bar"));
+    }
+
+    @Test
+    public void onlyMatchesLiteralsExactly() {
+        UriTemplate template = uriTemplate("path/foo");
+        assertThat(template.matches("path/foo"), is(true));
+        assertThat(template.matches("path/foobar"), is(false));
+        assertThat(template.matches("path/Foo"), is(false));
+        assertThat(template.matches("path"), is(false));
+    }
+
+    @Test
+    public void decodesEachCaptureSeparately() {
+        UriTemplate template = uriTemplate("path/{id}/{name}");
+        PathParameters parameters = template.extract("path/a%2Fb/c%20d");
+        assertThat(parameters.getValue("id"), is("a/b"));
+        assertThat(parameters.getValue("name"), is("c d"));
+    }
 }
@@ -0,0 +1,106 @@
+package com.googlecode.utterlyidle.annotations;
+
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.NamedParameter;
+import com.googlecode.utterlyidle.examples.HelloWorld;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class BindingIndexProcessorTest {
+    @Test
+    public void indexedBindingsAreTheSameAsReflectedOnes() throws Exception {
+        Binding[] indexed = BindingIndex.bindings(HelloWorld.class, indexFor(HelloWorld.class)).get();
+        Binding[] reflected = sequence(HelloWorld.class.getMethods()).flatMap(AnnotatedBindings::binding).toArray(Binding.class);
+
+        assertThat(descriptions(indexed), is(descriptions(reflected)));
+    }
+
+    @Test
+    public void fallsBackWhenThereIsNoIndex() throws Exception {
+        assertThat(BindingIndex.bindings(HelloWorld.class, null).isEmpty(), is(true));
+        assertThat(AnnotatedBindings.annotatedClass(HelloWorld.class).length > 0, is(true));
+    }
+
+    @Test
+    public void fallsBackWhenTheIndexNoLongerFitsTheClass() throws Exception {
+        URL index = index(fingerprint(HelloWorld.class), "renamed\t\tGET\thello\t*%2F*\t*%2F*\t0\tfalse\trenamed\t");
+
+        assertThat(BindingIndex.bindings(HelloWorld.class, index).isEmpty(), is(true));
+    }
+
+    @Test
+    public void fallsBackWhenTheIndexWasWrittenForADifferentVersionOfTheClass() throws Exception {
+        List<String> lines = Files.readAllLines(Paths.get(indexFor(HelloWorld.class).toURI()));
+        List<String> bindings = lines.subList(1, lines.size());
+
+        assertThat(lines.get(0), is(fingerprint(HelloWorld.class)));
+        assertThat(BindingIndex.bindings(HelloWorld.class, index(fingerprint(BindingIndexProcessorTest.class), bindings)).isEmpty(), is(true));
+        assertThat(BindingIndex.bindings(HelloWorld.class, index(bindings.toArray(new String[bindings.size()]))).isEmpty(), is(true));
+    }
+
+    @Test
+    public void complainsAboutAnIndexItCanNotParse() throws Exception {
+        URL index = index(fingerprint(HelloWorld.class), "primes\t\tGET");
+
+        try {
+            BindingIndex.bindings(HelloWorld.class, index);
+            fail("Should not read a corrupt index");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("Could not read the binding index " + index));
+        }
+    }
+
+    private static String fingerprint(Class<?> aClass) {
+        return BindingIndex.fingerprintLine(BindingIndex.fingerprint(aClass));
+    }
+
+    private static URL index(String fingerprint, List<String> lines) throws Exception {
+        List<String> index = new ArrayList<String>();
+        index.add(fingerprint);
+        index.addAll(lines);
+        return index(index.toArray(new String[index.size()]));
+    }
+
+    private static URL index(String... lines) throws Exception {
+        File index = Files.createTempFile("binding-index", ".txt").toFile();
+        index.deleteOnExit();
+        Files.write(index.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+        return index.toURI().toURL();
+    }
+
+    public static URL indexFor(Class<?> aClass) throws Exception {
+        File output = Files.createTempDirectory("binding-index").toFile();
+        File source = new File("src", aClass.getName().replace('.', '/') + ".java");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-proc:only", "-processor", BindingIndexProcessor.class.getName(),
+                "-classpath", System.getProperty("java.class.path"), "-d", output.getPath(), source.getPath());
+        if (result != 0) throw new IllegalStateException("Could not index " + source);
+        return new File(output, BindingIndex.resourceName(aClass.getName())).toURI().toURL();
+    }
+
+    private static Set<String> descriptions(Binding[] bindings) {
+        return sequence(bindings).map(binding -> String.format("%s consumes %s produces %s priority %s hidden %s view %s parameters %s",
+                binding, binding.consumes(), binding.produces(), binding.priority(), binding.hidden(), binding.view().value(),
+                binding.namedParameters().map(BindingIndexProcessorTest::description))).toSet();
+    }
+
+    private static String description(NamedParameter parameter) {
+        return parameter.parametersClass().getSimpleName() + " " + parameter.name() + " " + parameter.defaultValue();
+    }
+}
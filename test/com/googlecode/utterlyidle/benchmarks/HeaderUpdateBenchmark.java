@@ -0,0 +1,95 @@
+package com.googlecode.utterlyidle.benchmarks;
+
+import com.googlecode.utterlyidle.Application;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.annotations.GET;
+import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.annotations.Produces;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.functions.Functions.modify;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.HttpHeaders.CACHE_CONTROL;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LENGTH;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
+import static com.googlecode.utterlyidle.HttpHeaders.Content_MD5;
+import static com.googlecode.utterlyidle.HttpHeaders.DATE;
+import static com.googlecode.utterlyidle.HttpHeaders.ETAG;
+import static com.googlecode.utterlyidle.HttpHeaders.EXPIRES;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.MediaType.TEXT_PLAIN;
+
+/**
+ * Sets the headers the default decorators add to every response, first one at a time through the Unary builders
+ * (a new header list and response per header) and then as one batch, and runs the whole default handler chain for a
+ * small GET. Run it with -prof gc to see the allocation of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderUpdateBenchmark {
+    private final Response response = Response.ok().header("X-Request-Id", "1234").entity("Hello");
+    private final Date now = new Date();
+    private final Request request = Request.get("hello");
+    private Application application;
+
+    @Setup
+    public void setUp() {
+        application = application().addAnnotated(Hello.class).build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        application.close();
+    }
+
+    @Benchmark
+    public int oneHeaderAtATime() {
+        return modify(response,
+                header(DATE, now), header(CONTENT_TYPE, TEXT_PLAIN), header(CONTENT_LENGTH, 5),
+                header(ETAG, "\"8b1a9953c4611296a827abf8c47804d7\""), header(Content_MD5, "ixqZU8RhEpaoJ6v4xHgE1w=="),
+                header(CACHE_CONTROL, "private, must-revalidate"), header(EXPIRES, "0")).headers().size();
+    }
+
+    @Benchmark
+    public int batched() {
+        return response.replaceHeaders(sequence(
+                pair(DATE, now), pair(CONTENT_TYPE, TEXT_PLAIN), pair(CONTENT_LENGTH, 5),
+                pair(ETAG, "\"8b1a9953c4611296a827abf8c47804d7\""), pair(Content_MD5, "ixqZU8RhEpaoJ6v4xHgE1w=="),
+                pair(CACHE_CONTROL, "private, must-revalidate"), pair(EXPIRES, "0"))).headers().size();
+    }
+
+    @Benchmark
+    public int defaultHandlerChain() throws Exception {
+        return application.handle(request).headers().size();
+    }
+
+    @Produces(TEXT_PLAIN)
+    public static class Hello {
+        @GET
+        @Path("hello")
+        public String hello() {
+            return "Hello";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.googlecode.utterlyidle.benchmarks;
+
+import com.googlecode.utterlyidle.HttpMessageParser;
+import com.googlecode.utterlyidle.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static com.googlecode.totallylazy.Strings.bytes;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.Request.Builder.form;
+
+/**
+ * Parses a stored request with a dozen headers and a form body, the way HttpScheduler rehydrates a schedule,
+ * and reads the method, a header and the body length so none of the work can be skipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpMessageParsingBenchmark {
+    private String message;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        Request request = Request.post("/schedules/run?id=42",
+                header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"),
+                header("Accept-Encoding", "gzip, deflate"),
+                header("Accept-Language", "en-GB,en;q=0.5"),
+                header("Cache-Control", "no-cache"),
+                header("Connection", "keep-alive"),
+                header("Cookie", "session=2b1e4c9a; theme=dark; tracking=off"),
+                header("Host", "localhost:8080"),
+                header("Pragma", "no-cache"),
+                header("Referer", "http://localhost:8080/schedules"),
+                header("User-Agent", "Mozilla/5.0 (X11; Linux x86_64; rv:45.0) Gecko/20100101 Firefox/45.0"),
+                form("name", "nightly report"),
+                form("interval", "86400"));
+        message = request.toString();
+        bytes = bytes(message);
+    }
+
+    @Benchmark
+    public int string() {
+        return read(HttpMessageParser.parseRequest(message));
+    }
+
+    @Benchmark
+    public int inputStream() {
+        return read(HttpMessageParser.parseRequest(new ByteArrayInputStream(bytes)));
+    }
+
+    @Benchmark
+    public int byteBuffer() {
+        return read(HttpMessageParser.parseRequest(ByteBuffer.wrap(bytes)));
+    }
+
+    private static int read(Request request) {
+        return request.method().length() + request.headers().getValue("User-Agent").length() + request.entity().toBytes().length;
+    }
+}
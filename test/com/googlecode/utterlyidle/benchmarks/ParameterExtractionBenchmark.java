@@ -0,0 +1,96 @@
+package com.googlecode.utterlyidle.benchmarks;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.utterlyidle.Application;
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.annotations.CookieParam;
+import com.googlecode.utterlyidle.annotations.GET;
+import com.googlecode.utterlyidle.annotations.HeaderParam;
+import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.annotations.PathParam;
+import com.googlecode.utterlyidle.annotations.QueryParam;
+import com.googlecode.utterlyidle.bindings.ExtractedArguments;
+import com.googlecode.utterlyidle.modules.RequestScopedModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.cookie;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.Request.Builder.query;
+
+/**
+ * Compares invoking a multi-parameter resource with the arguments extracted during matching
+ * against extracting them all over again in InvokeResourceMethod.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterExtractionBenchmark {
+    private final Request request = Request.get("/orders/" + UUID.randomUUID() + "/lines/3",
+            query("sort", "price"), query("page", "2"), header("X-Tenant", "acme"), cookie("session", "abc"));
+    private Application reused;
+    private Application extractedTwice;
+
+    @Setup
+    public void setUp() {
+        reused = application().addAnnotated(Orders.class).build();
+        extractedTwice = application().addAnnotated(Orders.class).add(forgetExtractedArguments()).build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reused.close();
+        extractedTwice.close();
+    }
+
+    @Benchmark
+    public Response argumentsExtractedTwice() throws Exception {
+        return extractedTwice.handle(request);
+    }
+
+    @Benchmark
+    public Response argumentsReusedFromMatching() throws Exception {
+        return reused.handle(request);
+    }
+
+    private static RequestScopedModule forgetExtractedArguments() {
+        return container -> {
+            container.remove(ExtractedArguments.class);
+            return container.addInstance(ExtractedArguments.class, new ExtractedArguments() {
+                @Override
+                public Option<Object[]> arguments(Request request, Binding binding) {
+                    return none();
+                }
+            });
+        };
+    }
+
+    @Path("orders/{id}/lines/{line}")
+    public static class Orders {
+        @GET
+        public String line(@PathParam("id") UUID id, @PathParam("line") int line, @QueryParam("sort") String sort,
+                           @QueryParam("page") int page, @HeaderParam("X-Tenant") String tenant, @CookieParam("session") String session) {
+            return id + ":" + line + ":" + sort + ":" + page + ":" + tenant + ":" + session;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.googlecode.utterlyidle.benchmarks;
+
+import com.googlecode.totallylazy.io.Uri;
+import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.HeaderParameters;
+import com.googlecode.utterlyidle.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+
+/**
+ * Reads the query and cookies five times, as an argument scope per parameter would, from a request with a large
+ * query string and many cookies. Uncached only implements the abstract methods of Request so it parses every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestParsingBenchmark {
+    private static final int READS = 5;
+    private Request request;
+
+    @Setup
+    public void setUp() {
+        StringBuilder query = new StringBuilder();
+        StringBuilder cookies = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            query.append(i == 0 ? "?" : "&").append("param").append(i).append("=value+").append(i);
+            cookies.append(i == 0 ? "" : "; ").append("cookie").append(i).append("=").append(i);
+        }
+        request = Request.get("/search" + query, header("Cookie", cookies));
+    }
+
+    @Benchmark
+    public int parsedEveryTime() {
+        return read(new Uncached(request));
+    }
+
+    @Benchmark
+    public int parsedOncePerRequest() {
+        return read(request.uri(request.uri()));
+    }
+
+    private static int read(Request request) {
+        int found = 0;
+        for (int i = 0; i < READS; i++) {
+            found += request.query().size() + request.cookies().size();
+        }
+        return found;
+    }
+
+    private static class Uncached implements Request {
+        private final Request request;
+
+        private Uncached(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public String method() {
+            return request.method();
+        }
+
+        @Override
+        public Uri uri() {
+            return request.uri();
+        }
+
+        @Override
+        public HeaderParameters headers() {
+            return request.headers();
+        }
+
+        @Override
+        public Entity entity() {
+            return request.entity();
+        }
+
+        @Override
+        public Request create(String method, Uri uri, HeaderParameters headers, Entity entity) {
+            return request.create(method, uri, headers, entity);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.googlecode.utterlyidle.benchmarks;
+
+import com.googlecode.utterlyidle.bindings.actions.MethodInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static com.googlecode.utterlyidle.bindings.actions.MethodInvoker.constructors.methodHandleInvoker;
+import static com.googlecode.utterlyidle.bindings.actions.MethodInvoker.constructors.reflectiveInvoker;
+
+/**
+ * Compares the reflective and MethodHandle paths used by InvokeResourceMethod on a three argument resource method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceInvocationBenchmark {
+    private final Greeter greeter = new Greeter();
+    private final Object[] arguments = {"Dan", 3, 42L};
+    private MethodInvoker reflective;
+    private MethodInvoker handle;
+
+    @Setup
+    public void setUp() throws Exception {
+        Method method = Greeter.class.getMethod("greet", String.class, int.class, Long.class);
+        reflective = reflectiveInvoker(method);
+        handle = methodHandleInvoker(method);
+    }
+
+    @Benchmark
+    public Object methodInvoke() throws Exception {
+        return reflective.invoke(greeter, arguments);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Exception {
+        return handle.invoke(greeter, arguments);
+    }
+
+    public static class Greeter {
+        public String greet(String name, int times, Long id) {
+            return name.length() + times + id > 0 ? name : null;
+        }
+    }
+}
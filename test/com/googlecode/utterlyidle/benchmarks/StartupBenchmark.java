@@ -0,0 +1,54 @@
+package com.googlecode.utterlyidle.benchmarks;
+
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.annotations.AnnotatedBindings;
+import com.googlecode.utterlyidle.annotations.BindingIndex;
+import com.googlecode.utterlyidle.examples.HelloWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.utterlyidle.annotations.BindingIndexProcessorTest.indexFor;
+
+/**
+ * Times the first time the HelloWorld bindings are built, which is what start up pays, once by reflection and once
+ * from a binding index. Every measurement gets a fresh JVM, so run it from the project root where indexFor can find
+ * the HelloWorld source.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+    @Benchmark
+    public Binding[] reflection() {
+        return sequence(HelloWorld.class.getMethods()).flatMap(AnnotatedBindings::binding).toArray(Binding.class);
+    }
+
+    @Benchmark
+    public Binding[] bindingIndex(Index index) {
+        return BindingIndex.bindings(HelloWorld.class, index.location).get();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Index {
+        private URL location;
+
+        @Setup
+        public void setUp() throws Exception {
+            location = indexFor(HelloWorld.class);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.googlecode.utterlyidle.bindings;
+
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.dsl.DslTest;
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.proxy.Call.method;
+import static com.googlecode.totallylazy.proxy.Call.on;
+import static com.googlecode.utterlyidle.annotations.HttpMethod.ANY;
+import static com.googlecode.utterlyidle.bindings.BindingTrie.bindingTrie;
+import static com.googlecode.utterlyidle.dsl.BindingBuilder.get;
+import static com.googlecode.utterlyidle.dsl.BindingBuilder.post;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class BindingTrieTest {
+    private final Binding users = get("users").resource(method(on(DslTest.Bar.class).hello())).build();
+    private final Binding user = get("users/{id}").resource(method(on(DslTest.Bar.class).hello())).build();
+    private final Binding orders = get("/users/{id}/orders").resource(method(on(DslTest.Bar.class).hello())).build();
+    private final Binding numbered = get("users/{id:\\d+}/numbered").resource(method(on(DslTest.Bar.class).hello())).build();
+    private final Binding create = post("users").resource(method(on(DslTest.Bar.class).hello())).build();
+    private final Binding any = get("users/any").httpMethod(ANY).resource(method(on(DslTest.Bar.class).hello())).build();
+    private final BindingTrie trie = bindingTrie(sequence(users, user, orders, numbered, create, any));
+
+    @Test
+    public void findsLiteralAndParameterSegments() throws Exception {
+        assertThat(trie.matches("/users", "GET"), is(sequence(users)));
+        assertThat(trie.matches("/users/dan", "GET"), is(sequence(users, user)));
+        assertThat(trie.matches("/users/dan/orders", "GET"), is(sequence(users, user, orders)));
+    }
+
+    @Test
+    public void onlyReturnsBindingsWhoseTemplateReallyMatches() throws Exception {
+        assertThat(trie.matches("/users/123/numbered", "GET"), is(sequence(users, user, numbered)));
+        assertThat(trie.matches("/users/dan/numbered", "GET"), is(sequence(users, user)));
+        assertThat(trie.matches("/people", "GET").isEmpty(), is(true));
+    }
+
+    @Test
+    public void usesMethodTables() throws Exception {
+        assertThat(trie.matches("/users", "POST"), is(sequence(create)));
+        assertThat(trie.matches("/users/any", "DELETE"), is(sequence(any)));
+        assertThat(trie.matches("/users/any", "get"), is(sequence(users, user, any)));
+        assertThat(trie.matches("/users"), is(sequence(users, create)));
+    }
+
+    @Test
+    public void canBeAddedToIncrementally() throws Exception {
+        BindingTrie trie = bindingTrie(sequence(user));
+        assertThat(trie.matches("/users/dan", "GET"), is(sequence(user)));
+        trie.add(users);
+        assertThat(trie.matches("/users/dan", "GET"), is(sequence(user, users)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.googlecode.utterlyidle.bindings;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.utterlyidle.ApplicationBuilder;
+import com.googlecode.utterlyidle.Binding;
+import com.googlecode.utterlyidle.Bindings;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Resources;
+import com.googlecode.utterlyidle.annotations.POST;
+import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.annotations.QueryParam;
+import com.googlecode.utterlyidle.modules.ApplicationScopedModule;
+import com.googlecode.utterlyidle.modules.ArgumentScopedModule;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.annotations.AnnotatedBindings.annotatedClass;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ExtractedArgumentsTest {
+    private static final AtomicInteger extractions = new AtomicInteger();
+    private final ApplicationBuilder application = application().
+            add((ArgumentScopedModule) container -> container.addActivator(Extraction.class, () -> {
+                extractions.incrementAndGet();
+                return new Extraction();
+            })).
+            addAnnotated(Greetings.class);
+
+    @Before
+    public void reset() {
+        extractions.set(0);
+    }
+
+    @Test
+    public void extractsTheArgumentsOnceWhenMatchingThroughTheTrie() throws Exception {
+        assertThat(application.responseAsString(Request.post("greet?name=Dan")), is("Hello Dan"));
+        assertThat(extractions.get(), is(1));
+    }
+
+    @Test
+    public void extractsTheArgumentsOnceWhenBindingsHaveNoTrie() throws Exception {
+        application.add((ApplicationScopedModule) container -> {
+            Resources resources = container.get(Resources.class);
+            container.remove(Bindings.class);
+            return container.addInstance(Bindings.class, new Bindings() {
+                @Override
+                public Option<Binding> find(Method method) {
+                    return resources.find(method);
+                }
+
+                @Override
+                public Iterator<Binding> iterator() {
+                    return resources.iterator();
+                }
+            });
+        });
+
+        assertThat(application.responseAsString(Request.post("greet?name=Dan")), is("Hello Dan"));
+        assertThat(extractions.get(), is(1));
+    }
+
+    @Test
+    public void onlyHandsBackArgumentsRecordedForTheSameRequestAndBinding() throws Exception {
+        ExtractedArguments arguments = new ExtractedArguments();
+        Request request = Request.post("greet");
+        Binding binding = annotatedClass(Greetings.class)[0];
+
+        assertThat(arguments.record(request, binding, new Object[0]).arguments(request, binding).isEmpty(), is(false));
+        assertThat(arguments.arguments(Request.post("greet"), binding).isEmpty(), is(true));
+    }
+
+    public static class Extraction {
+    }
+
+    public static class Greetings {
+        @POST
+        @Path("greet")
+        public String greet(Extraction extraction, @QueryParam("name") String name) {
+            return "Hello " + name;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.googlecode.utterlyidle.bindings.actions;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import static com.googlecode.utterlyidle.bindings.actions.MethodInvoker.constructors.methodInvoker;
+import static com.googlecode.utterlyidle.bindings.actions.MethodInvoker.constructors.reflectiveInvoker;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class MethodInvokerTest {
+    @Test
+    public void invokesInstanceMethodsThroughAMethodHandle() throws Exception {
+        MethodInvoker invoker = methodInvoker(Greeter.class.getMethod("greet", String.class, int.class));
+
+        assertThat(invoker, instanceOf(MethodHandleInvoker.class));
+        assertThat(invoker.invoke(new Greeter(), new Object[]{"Dan", 2}), is((Object) "Dan Dan"));
+    }
+
+    @Test
+    public void invokesStaticMethodsIgnoringTheInstance() throws Exception {
+        MethodInvoker invoker = methodInvoker(Greeter.class.getMethod("shout", String.class));
+
+        assertThat(invoker, instanceOf(MethodHandleInvoker.class));
+        assertThat(invoker.invoke(null, new Object[]{"Dan"}), is((Object) "DAN"));
+    }
+
+    @Test
+    public void invokesVarargsMethodsReflectively() throws Exception {
+        MethodInvoker invoker = methodInvoker(Greeter.class.getMethod("all", Object[].class));
+
+        assertThat(invoker, instanceOf(ReflectiveMethodInvoker.class));
+        assertThat(invoker.invoke(new Greeter(), new Object[]{"Dan", "Matt"}), is((Object) 2));
+    }
+
+    @Test
+    public void fallsBackToReflectionWhenTheMethodCanNotBeLookedUp() throws Exception {
+        Method size = Collections.unmodifiableList(Collections.emptyList()).getClass().getMethod("size");
+
+        assertThat(methodInvoker(size), instanceOf(ReflectiveMethodInvoker.class));
+    }
+
+    @Test
+    public void throwsWhatTheResourceThrows() throws Exception {
+        Method fail = Greeter.class.getMethod("fail");
+        for (MethodInvoker invoker : new MethodInvoker[]{methodInvoker(fail), reflectiveInvoker(fail)}) {
+            try {
+                invoker.invoke(new Greeter(), new Object[0]);
+                fail("Should have thrown");
+            } catch (IOException e) {
+                assertThat(e.getMessage(), is("failed"));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsArgumentsThatDoNotFitLikeMethodInvoke() throws Exception {
+        Method greet = Greeter.class.getMethod("greet", String.class, int.class);
+        for (MethodInvoker invoker : new MethodInvoker[]{methodInvoker(greet), reflectiveInvoker(greet)}) {
+            for (Object[] arguments : new Object[][]{{"Dan", null}, {"Dan", "two"}}) {
+                try {
+                    invoker.invoke(new Greeter(), arguments);
+                    fail("Should not accept " + arguments[1]);
+                } catch (IllegalArgumentException e) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    @Test
+    public void keepsNullPointerExceptionsFromTheResource() throws Exception {
+        try {
+            methodInvoker(Greeter.class.getMethod("shout", String.class)).invoke(null, new Object[]{null});
+            fail("Should have thrown");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    public static class Greeter {
+        public String greet(String name, int times) {
+            return times == 1 ? name : name + " " + greet(name, times - 1);
+        }
+
+        public static String shout(String name) {
+            return name.toUpperCase();
+        }
+
+        public int all(Object... names) {
+            return names.length;
+        }
+
+        public String fail() throws IOException {
+            throw new IOException("failed");
+        }
+    }
+}
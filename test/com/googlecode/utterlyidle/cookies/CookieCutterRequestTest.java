@@ -11,9 +11,12 @@ import static com.googlecode.utterlyidle.Request.get;
 import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
 import static com.googlecode.utterlyidle.cookies.Cookie.cookie;
 import static com.googlecode.utterlyidle.cookies.CookieCutter.cookies;
+import static com.googlecode.utterlyidle.cookies.CookieCutter.parseRequestHeader;
+import static com.googlecode.utterlyidle.cookies.CookieEncoding.BASE64_ENCODING;
 import static com.googlecode.utterlyidle.cookies.EmptyCookiesMatcher.isEmpty;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
 public class CookieCutterRequestTest {
@@ -44,6 +47,20 @@ public class CookieCutterRequestTest {
         MatcherAssert.assertThat(cookies(requestWithCookies(cookie)), contains(cookie));
     }
 
+    @Test
+    public void trimsAroundSemicolonsAndUnquotesValues() throws Exception {
+        assertThat(parseRequestHeader(" a=1;b=\"two\" ;  c=x=y;;d=\"q\\\"uote\"; "),
+                contains(cookie("a", "1"), cookie("b", "two"), cookie("c", "x=y"), cookie("d", "q\"uote")));
+    }
+
+    @Test
+    public void decodesValuesWithTheGivenEncoding() throws Exception {
+        Request request = Request.get("/", header(COOKIE, "plain=Viscount; encoded=utterlyidle:v1:SMWNYiBOxZHhuIM="));
+
+        assertThat(cookies(request, BASE64_ENCODING), contains(cookie("plain", "Viscount"), cookie("encoded", "Hōb Nőḃ")));
+        assertThat(cookies(request).last().value(), is("utterlyidle:v1:SMWNYiBOxZHhuIM="));
+    }
+
     private Request requestWithoutCookies() {
         return requestWithCookies();
     }
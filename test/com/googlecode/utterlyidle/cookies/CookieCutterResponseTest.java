@@ -10,8 +10,10 @@ import static com.googlecode.utterlyidle.HttpHeaders.SET_COOKIE;
 import static com.googlecode.utterlyidle.cookies.Cookie.cookie;
 import static com.googlecode.utterlyidle.cookies.CookieAttribute.*;
 import static com.googlecode.utterlyidle.cookies.CookieCutter.cookies;
+import static com.googlecode.utterlyidle.cookies.CookieCutter.parseResponseHeader;
 import static com.googlecode.utterlyidle.cookies.EmptyCookiesMatcher.isEmpty;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
 public class CookieCutterResponseTest {
@@ -36,6 +38,15 @@ public class CookieCutterResponseTest {
         assertThat(cookies(request), isEmpty());
     }
 
+    @Test
+    public void takesTheFirstWellFormedPairAsTheCookieAndTheRestAsAttributes() throws Exception {
+        Cookie cookie = parseResponseHeader("malformed; name=\"value\"; Path=/; Comment=\"quoted\"; Secure").get();
+
+        assertThat(cookie.name(), is("name"));
+        assertThat(cookie.value(), is("value"));
+        assertThat(sequence(cookie.attributes()).toList(), containsInAnyOrder(path("/"), comment("quoted")));
+    }
+
     private Response responseWithoutCookies() {
         return responseWithCookies();
     }
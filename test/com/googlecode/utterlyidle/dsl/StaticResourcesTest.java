@@ -2,19 +2,32 @@ package com.googlecode.utterlyidle.dsl;
 
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.handlers.ClientHttpHandler;
 import org.junit.Test;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 
+import static com.googlecode.totallylazy.Files.randomFilename;
+import static com.googlecode.totallylazy.Files.temporaryDirectory;
 import static com.googlecode.totallylazy.Files.workingDirectory;
+import static com.googlecode.totallylazy.Strings.bytes;
+import static com.googlecode.totallylazy.Strings.string;
 import static com.googlecode.totallylazy.io.URLs.packageUrl;
 import static com.googlecode.totallylazy.io.URLs.url;
+import static com.googlecode.totallylazy.io.Uri.uri;
 import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.security.GZip.gzip;
+import static com.googlecode.totallylazy.security.GZip.ungzip;
 import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.HttpHeaders.ACCEPT_ENCODING;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_ENCODING;
+import static com.googlecode.utterlyidle.HttpHeaders.VARY;
 import static com.googlecode.utterlyidle.Request.get;
 import static com.googlecode.utterlyidle.dsl.DslBindings.bindings;
 import static com.googlecode.utterlyidle.dsl.StaticBindingBuilder.in;
+import static com.googlecode.utterlyidle.handlers.GzipHandler.GZIP;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class StaticResourcesTest {
@@ -30,4 +43,61 @@ public class StaticResourcesTest {
         Response response = application().add(bindings(in(build).path(""))).handle(Request.get("../build.xml"));
         assertThat(response.status().isClientError(), is(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void servesAPrecompressedSiblingWhenTheClientAcceptsGzip() throws Exception {
+        File directory = directoryWith("app.js", "plain");
+        Files.write(new File(directory, "app.js.gz").toPath(), gzip(bytes("precompressed")));
+
+        Response response = application().add(bindings(in(url(directory)).path(""))).handle(Request.get("app.js").header(ACCEPT_ENCODING, GZIP));
+
+        assertThat(response.header(CONTENT_ENCODING).get(), is(GZIP));
+        assertThat(response.header(VARY).get(), is(ACCEPT_ENCODING));
+        assertThat(string(ungzip(response.entity().toBytes())), is("precompressed"));
+    }
+
+    @Test
+    public void compressesWhenThereIsNoSibling() throws Exception {
+        File directory = directoryWith("app.js", "plain");
+
+        Response response = application().add(bindings(in(url(directory)).path(""))).handle(Request.get("app.js").header(ACCEPT_ENCODING, GZIP));
+
+        assertThat(response.header(CONTENT_ENCODING).get(), is(GZIP));
+        assertThat(string(ungzip(response.entity().toBytes())), is("plain"));
+    }
+
+    @Test
+    public void servesTheOriginalButStillVariesWhenTheClientDoesNotAcceptGzip() throws Exception {
+        File directory = directoryWith("app.js", "plain");
+        Files.write(new File(directory, "app.js.gz").toPath(), gzip(bytes("precompressed")));
+
+        Response response = application().add(bindings(in(url(directory)).path(""))).handle(Request.get("app.js"));
+
+        assertThat(response.header(CONTENT_ENCODING).isEmpty(), is(true));
+        assertThat(response.header(VARY).get(), is(ACCEPT_ENCODING));
+        assertThat(response.entity().toString(), is("plain"));
+    }
+
+    @Test
+    public void cachesCompressedVariantsWithinTheirTotalSize() throws Exception {
+        File directory = directoryWith("a.js", "first");
+        Files.write(new File(directory, "b.js").toPath(), bytes("second"));
+        ClientHttpHandler client = new ClientHttpHandler();
+        int oneVariant = gzip(bytes("second")).length;
+        CompressedResources compressed = new CompressedResources(oneVariant + 10);
+
+        compressed.gzip(client, uri(url(new File(directory, "a.js"))), client.handle(Request.get(uri(url(new File(directory, "a.js"))))));
+        assertThat(compressed.entries(), is(1));
+
+        compressed.gzip(client, uri(url(new File(directory, "b.js"))), client.handle(Request.get(uri(url(new File(directory, "b.js"))))));
+        assertThat(compressed.entries(), is(1));
+        assertThat(compressed.size() <= oneVariant + 10, is(true));
+    }
+
+    private static File directoryWith(String name, String content) throws Exception {
+        File directory = new File(temporaryDirectory(), randomFilename());
+        directory.mkdirs();
+        Files.write(new File(directory, name).toPath(), bytes(content));
+        return directory;
+    }
+}
@@ -0,0 +1,104 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.utterlyidle.Entity;
+import com.googlecode.utterlyidle.HttpHandler;
+import com.googlecode.utterlyidle.LimitedInputStream;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.annotations.FormParam;
+import com.googlecode.utterlyidle.annotations.MaxEntitySize;
+import com.googlecode.utterlyidle.annotations.POST;
+import com.googlecode.utterlyidle.annotations.Path;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.EntitySizeLimit.entitySizeLimit;
+import static com.googlecode.utterlyidle.EntitySizeLimit.noLimit;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LENGTH;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.entity;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.LimitedInputStream.limitedInputStream;
+import static com.googlecode.utterlyidle.MediaType.APPLICATION_FORM_URLENCODED;
+import static com.googlecode.utterlyidle.Status.OK;
+import static com.googlecode.utterlyidle.Status.REQUEST_ENTITY_TOO_LARGE;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EntitySizeHandlerTest {
+    private final HttpHandler echo = request -> Response.ok().entity(request.entity().toString());
+
+    @Test
+    public void rejectsADeclaredLengthOverTheLimitWithoutReadingTheBody() throws Exception {
+        Response response = new EntitySizeHandler(echo, entitySizeLimit(10)).handle(
+                Request.post("upload", header(CONTENT_LENGTH, 11), entity(stream("12345678901"))));
+        assertThat(response.status(), is(REQUEST_ENTITY_TOO_LARGE));
+    }
+
+    @Test
+    public void stopsReadingAStreamOnceItGoesOverTheLimit() throws Exception {
+        LimitedInputStream body = limitedInputStream(stream("12345678901"), 10);
+        Response response = application().addAnnotated(Uploads.class).handle(Request.post("large", entity(body)));
+        assertThat(response.status(), is(REQUEST_ENTITY_TOO_LARGE));
+        assertThat(body.count(), is(11L));
+    }
+
+    @Test
+    public void allowsAnEntityOfExactlyTheLimit() throws Exception {
+        Response response = new EntitySizeHandler(echo, entitySizeLimit(10)).handle(Request.post("upload", entity(stream("1234567890"))));
+        assertThat(response.entity().toString(), is("1234567890"));
+    }
+
+    @Test
+    public void rejectsAnInMemoryEntityOverTheLimit() throws Exception {
+        Response response = new EntitySizeHandler(echo, entitySizeLimit(3)).handle(Request.post("upload", entity("1234")));
+        assertThat(response.status(), is(REQUEST_ENTITY_TOO_LARGE));
+        assertThat(new EntitySizeHandler(echo, noLimit()).handle(Request.post("upload", entity("1234"))).status(), is(OK));
+    }
+
+    @Test
+    public void aBindingCanLowerTheLimit() throws Exception {
+        assertThat(application().addAnnotated(Uploads.class).handle(Request.post("small", entity(stream("12345")))).status(), is(REQUEST_ENTITY_TOO_LARGE));
+        assertThat(application().addAnnotated(Uploads.class).handle(Request.post("small", entity(stream("1234")))).entity().toString(), is("1234"));
+        assertThat(application().addAnnotated(Uploads.class).handle(Request.post("small", header(CONTENT_LENGTH, 5), entity(stream("12345")))).status(), is(REQUEST_ENTITY_TOO_LARGE));
+        assertThat(application().addAnnotated(Uploads.class).handle(Request.post("large", entity(stream("12345")))).entity().toString(), is("12345"));
+    }
+
+    @Test
+    public void appliesTheBindingLimitBeforeReadingAForm() throws Exception {
+        LimitedInputStream body = limitedInputStream(stream("name=" + new String(new char[100]).replace('\0', 'x')), -1);
+        Response response = application().addAnnotated(Uploads.class).handle(
+                Request.post("form", header(CONTENT_TYPE, APPLICATION_FORM_URLENCODED), entity(body)));
+        assertThat(response.status(), is(REQUEST_ENTITY_TOO_LARGE));
+        assertThat(body.count(), is(11L));
+    }
+
+    private static ByteArrayInputStream stream(String value) {
+        return new ByteArrayInputStream(value.getBytes());
+    }
+
+    @Path("/")
+    public static class Uploads {
+        @POST
+        @Path("small")
+        @MaxEntitySize(4)
+        public String small(Entity entity) {
+            return entity.toString();
+        }
+
+        @POST
+        @Path("form")
+        @MaxEntitySize(10)
+        public String form(@FormParam("name") String name) {
+            return name;
+        }
+
+        @POST
+        @Path("large")
+        public String large(Entity entity) {
+            return entity.toString();
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package com.googlecode.utterlyidle.handlers;
 
+import com.googlecode.totallylazy.security.GZip;
 import com.googlecode.utterlyidle.HttpMessage;
 import com.googlecode.utterlyidle.InternalRequestMarker;
 import com.googlecode.utterlyidle.Request;
 import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.StreamingWriter;
 import org.junit.Test;
 
+import java.util.zip.Deflater;
+
+import static com.googlecode.totallylazy.Strings.string;
 import static com.googlecode.totallylazy.matchers.Matchers.is;
 import static com.googlecode.utterlyidle.HttpHeaders.ACCEPT_ENCODING;
 import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_ENCODING;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LENGTH;
 import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
 import static com.googlecode.utterlyidle.HttpHeaders.VARY;
 import static com.googlecode.utterlyidle.MediaType.TEXT_PLAIN;
 import static com.googlecode.utterlyidle.handlers.ApplicationId.applicationId;
+import static com.googlecode.utterlyidle.handlers.DeflaterPool.deflaterPool;
 import static com.googlecode.utterlyidle.handlers.GZipPolicy.gZipPolicy;
 import static com.googlecode.utterlyidle.handlers.GzipHandler.GZIP;
 import static com.googlecode.utterlyidle.handlers.ReturnResponseHandler.returns;
@@ -43,4 +50,50 @@ public class GzipHandlerTest {
                 is(GZIP));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void compressesStreamedEntitiesAsTheyAreWritten() throws Exception {
+        DeflaterPool deflaters = deflaterPool(1);
+        GzipHandler handler = new GzipHandler(
+                returns(Response.ok()
+                        .header(CONTENT_TYPE, TEXT_PLAIN)
+                        .header(CONTENT_LENGTH, "42")
+                        .entity((StreamingWriter) writer -> writer.write("some streamed content"))),
+                new InternalRequestMarker(applicationId()), gZipPolicy().add(contentType(TEXT_PLAIN)).deflaters(deflaters));
+
+        Response response = handler.handle(Request.get("ignored").header(ACCEPT_ENCODING, GZIP));
+
+        assertThat(response.headers().getValue(CONTENT_ENCODING), is(GZIP));
+        assertThat(response.headers().contains(CONTENT_LENGTH), is(false));
+        assertThat(string(GZip.ungzip(response.entity().toBytes())), is("some streamed content"));
+        assertThat(deflaters.idle(), is(1));
+    }
+
+    @Test
+    public void leavesEntitiesSmallerThanTheMinimumSizeAlone() throws Exception {
+        GzipHandler handler = new GzipHandler(
+                returns(Response.ok().header(CONTENT_TYPE, TEXT_PLAIN).entity("tiny")),
+                new InternalRequestMarker(applicationId()), gZipPolicy().add(contentType(TEXT_PLAIN)).minimumSize(5));
+
+        Response response = handler.handle(Request.get("ignored").header(ACCEPT_ENCODING, GZIP));
+
+        assertThat(response.headers().contains(CONTENT_ENCODING), is(false));
+        assertThat(response.entity().toString(), is("tiny"));
+    }
+
+    @Test
+    public void compressesInMemoryEntitiesUpFrontAtTheConfiguredLevel() throws Exception {
+        GzipHandler handler = new GzipHandler(
+                returns(Response.ok().header(CONTENT_TYPE, TEXT_PLAIN).entity("some content some content some content")),
+                new InternalRequestMarker(applicationId()), gZipPolicy().add(contentType(TEXT_PLAIN)).level(Deflater.BEST_SPEED));
+
+        Response response = handler.handle(Request.get("ignored").header(ACCEPT_ENCODING, GZIP));
+
+        assertThat(response.entity().value() instanceof byte[], is(true));
+        assertThat(string(GZip.ungzip(response.entity().toBytes())), is("some content some content some content"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnUnknownCompressionLevel() throws Exception {
+        gZipPolicy().level(10);
+    }
+}
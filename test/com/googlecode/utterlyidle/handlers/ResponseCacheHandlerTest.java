@@ -0,0 +1,243 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.totallylazy.time.Clock;
+import com.googlecode.utterlyidle.ApplicationBuilder;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.annotations.GET;
+import com.googlecode.utterlyidle.annotations.HeaderParam;
+import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.jobs.Completer;
+import com.googlecode.utterlyidle.jobs.ManualCompleter;
+import com.googlecode.utterlyidle.modules.ApplicationScopedModule;
+import com.googlecode.utterlyidle.modules.ResponseCacheModule;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.HttpHeaders.ACCEPT_LANGUAGE;
+import static com.googlecode.utterlyidle.HttpHeaders.AGE;
+import static com.googlecode.utterlyidle.HttpHeaders.CACHE_CONTROL;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_LOCATION;
+import static com.googlecode.utterlyidle.HttpHeaders.ETAG;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_NONE_MATCH;
+import static com.googlecode.utterlyidle.HttpHeaders.SET_COOKIE;
+import static com.googlecode.utterlyidle.HttpHeaders.VARY;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.Status.NOT_MODIFIED;
+import static com.googlecode.utterlyidle.modules.Modules.applicationInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ResponseCacheHandlerTest {
+    private static final AtomicInteger invocations = new AtomicInteger();
+    private final MovableClock clock = new MovableClock();
+    private final ManualCompleter completer = new ManualCompleter();
+    private final ResponseCache cache = new ResponseCache(1024 * 1024, 64 * 1024, 0);
+    private final ApplicationBuilder application = application().
+            add(applicationInstance(Completer.class, completer)).
+            add(applicationInstance(ResponseCache.class, cache)).
+            add((ApplicationScopedModule) container -> {
+                container.remove(Clock.class);
+                return container.addInstance(Clock.class, clock);
+            }).
+            add(new ResponseCacheModule()).
+            addAnnotated(Catalogue.class).
+            addAnnotated(Catalogues.class);
+
+    @Before
+    public void reset() {
+        invocations.set(0);
+    }
+
+    @Test
+    public void servesRepeatedRequestsFromTheCache() throws Exception {
+        assertThat(application.responseAsString(Request.get("catalogue")), is("1"));
+        clock.advance(5);
+        Response cached = application.handle(Request.get("catalogue"));
+
+        assertThat(cached.entity().toString(), is("1"));
+        assertThat(cached.header(AGE).get(), is("5"));
+        assertThat(invocations.get(), is(1));
+        assertThat(cache.hits(), is(1L));
+        assertThat(cache.misses(), is(1L));
+    }
+
+    @Test
+    public void neverCachesResponsesThatSetCookiesOrArePrivate() throws Exception {
+        application.handle(Request.get("catalogue/cookie"));
+        application.handle(Request.get("catalogue/cookie"));
+        application.handle(Request.get("catalogue/private"));
+        application.handle(Request.get("catalogue/private"));
+
+        assertThat(invocations.get(), is(4));
+        assertThat(cache.entries(), is(0));
+    }
+
+    @Test
+    public void keepsAVariantPerVaryHeader() throws Exception {
+        assertThat(application.responseAsString(Request.get("catalogue/language", header(ACCEPT_LANGUAGE, "en"))), is("en 1"));
+        assertThat(application.responseAsString(Request.get("catalogue/language", header(ACCEPT_LANGUAGE, "fr"))), is("fr 2"));
+        assertThat(application.responseAsString(Request.get("catalogue/language", header(ACCEPT_LANGUAGE, "en"))), is("en 1"));
+        assertThat(cache.entries(), is(2));
+    }
+
+    @Test
+    public void servesStaleResponsesWhileRefreshingInTheBackground() throws Exception {
+        application.handle(Request.get("catalogue"));
+        clock.advance(70);
+
+        assertThat(application.responseAsString(Request.get("catalogue")), is("1"));
+        assertThat(cache.staleHits(), is(1L));
+        completer.job.call();
+        assertThat(invocations.get(), is(2));
+
+        assertThat(application.responseAsString(Request.get("catalogue")), is("2"));
+    }
+
+    @Test
+    public void expiresOnceTheStaleWindowHasPassed() throws Exception {
+        application.handle(Request.get("catalogue"));
+        clock.advance(100);
+
+        assertThat(application.responseAsString(Request.get("catalogue")), is("2"));
+    }
+
+    @Test
+    public void purgesByPathPrefix() throws Exception {
+        application.handle(Request.get("catalogue"));
+        application.handle(Request.get("catalogue/language"));
+
+        assertThat(cache.purge("/catalogue"), is(2));
+        assertThat(application.responseAsString(Request.get("catalogue")), is("3"));
+    }
+
+    @Test
+    public void revalidatesOnTheNextRequestIfTheRefreshCouldNotBeScheduled() throws Exception {
+        AtomicInteger rejections = new AtomicInteger();
+        ApplicationBuilder application = application().
+                add(applicationInstance(Completer.class, new ManualCompleter() {
+                    @Override
+                    public void complete(Callable<?> job) {
+                        if (rejections.getAndIncrement() == 0) throw new RejectedExecutionException();
+                        super.complete(job);
+                    }
+                })).
+                add(applicationInstance(ResponseCache.class, cache)).
+                add((ApplicationScopedModule) container -> {
+                    container.remove(Clock.class);
+                    return container.addInstance(Clock.class, clock);
+                }).
+                add(new ResponseCacheModule()).
+                addAnnotated(Catalogue.class);
+
+        application.handle(Request.get("catalogue"));
+        clock.advance(70);
+        application.handle(Request.get("catalogue"));
+        application.handle(Request.get("catalogue"));
+
+        assertThat(rejections.get(), is(2));
+    }
+
+    @Test
+    public void answersConditionalHitsWithTheHeadersOfTheStoredResponse() throws Exception {
+        application.handle(Request.get("catalogue/tagged"));
+        Response response = application.handle(Request.get("catalogue/tagged", header(IF_NONE_MATCH, "\"v1\"")));
+
+        assertThat(response.status(), is(NOT_MODIFIED));
+        assertThat(response.header(ETAG).get(), is("\"v1\""));
+        assertThat(response.header(CACHE_CONTROL).get(), is("public, max-age=60, stale-while-revalidate=30"));
+        assertThat(response.header(CONTENT_LOCATION).get(), is("/catalogue/1"));
+        assertThat(response.header(AGE).get(), is("0"));
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    public void purgesOnlyWholePathSegments() throws Exception {
+        application.handle(Request.get("catalogue"));
+        application.handle(Request.get("catalogues"));
+
+        assertThat(cache.purge("/catalogue"), is(1));
+        assertThat(cache.entries(), is(1));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedWhenFull() throws Exception {
+        ResponseCache small = new ResponseCache(500, 300, 0);
+        ApplicationBuilder application = application().
+                add(applicationInstance(ResponseCache.class, small)).
+                add(new ResponseCacheModule()).
+                addAnnotated(Catalogue.class);
+
+        application.handle(Request.get("catalogue/large?name=a"));
+        application.handle(Request.get("catalogue/large?name=b"));
+
+        assertThat(small.entries(), is(1));
+        assertThat(small.evictions(), is(1L));
+        assertThat(small.size() <= 500, is(true));
+    }
+
+    @Path("catalogue")
+    public static class Catalogue {
+        @GET
+        public Response get() {
+            return Response.ok().header(CACHE_CONTROL, "public, max-age=60, stale-while-revalidate=30").entity(String.valueOf(invocations.incrementAndGet()));
+        }
+
+        @GET
+        @Path("cookie")
+        public Response cookie() {
+            return get().header(SET_COOKIE, "session=1");
+        }
+
+        @GET
+        @Path("private")
+        public Response privately() {
+            return get().header(CACHE_CONTROL, "private, max-age=60");
+        }
+
+        @GET
+        @Path("language")
+        public Response language(@HeaderParam(ACCEPT_LANGUAGE) String language) {
+            return get().header(VARY, ACCEPT_LANGUAGE).entity(language + " " + invocations.get());
+        }
+
+        @GET
+        @Path("tagged")
+        public Response tagged() {
+            return get().header(ETAG, "\"v1\"").header(CONTENT_LOCATION, "/catalogue/1");
+        }
+
+        @GET
+        @Path("large")
+        public Response large() {
+            return get().entity(new String(new char[200]).replace('\0', 'x'));
+        }
+    }
+
+    @Path("catalogues")
+    public static class Catalogues {
+        @GET
+        public Response get() {
+            return Response.ok().header(CACHE_CONTROL, "public, max-age=60").entity("all");
+        }
+    }
+
+    private static class MovableClock implements Clock {
+        private Date now = new Date(1000000000000L);
+
+        @Override
+        public Date now() {
+            return now;
+        }
+
+        private void advance(int seconds) {
+            now = new Date(now.getTime() + seconds * 1000L);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.googlecode.utterlyidle.handlers;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.time.Dates;
+import com.googlecode.utterlyidle.EntityTag;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.Response;
+import com.googlecode.utterlyidle.Validator;
+import com.googlecode.utterlyidle.annotations.GET;
+import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.annotations.ValidatedBy;
+import com.googlecode.utterlyidle.modules.ArgumentScopedModule;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.HttpHeaders.ETAG;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_MODIFIED_SINCE;
+import static com.googlecode.utterlyidle.HttpHeaders.IF_NONE_MATCH;
+import static com.googlecode.utterlyidle.HttpHeaders.LAST_MODIFIED;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.Status.NOT_FOUND;
+import static com.googlecode.utterlyidle.Status.NOT_MODIFIED;
+import static com.googlecode.utterlyidle.Status.OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ValidatorHandlerTest {
+    private static final Date MODIFIED = new Date(1000000000000L);
+    private static final AtomicInteger invocations = new AtomicInteger();
+    private static final AtomicInteger extractions = new AtomicInteger();
+    private static final ArgumentScopedModule countExtractions = container -> container.addActivator(Extraction.class, () -> {
+        extractions.incrementAndGet();
+        return new Extraction();
+    });
+
+    @Before
+    public void reset() {
+        invocations.set(0);
+        extractions.set(0);
+    }
+
+    @Test
+    public void answersAMatchingIfNoneMatchWithoutInvokingTheResource() throws Exception {
+        Response response = application().addAnnotated(Catalogue.class).handle(Request.get("catalogue", header(IF_NONE_MATCH, "\"other\", \"v1\"")));
+        assertThat(response.status(), is(NOT_MODIFIED));
+        assertThat(response.header(ETAG).get(), is("\"v1\""));
+        assertThat(invocations.get(), is(0));
+    }
+
+    @Test
+    public void answersIfModifiedSinceWithoutInvokingTheResource() throws Exception {
+        Response response = application().addAnnotated(Catalogue.class).handle(Request.get("catalogue", header(IF_MODIFIED_SINCE, Dates.RFC822().format(MODIFIED))));
+        assertThat(response.status(), is(NOT_MODIFIED));
+        assertThat(invocations.get(), is(0));
+    }
+
+    @Test
+    public void invokesTheResourceWhenTheValidatorHasChanged() throws Exception {
+        Response response = application().addAnnotated(Catalogue.class).handle(Request.get("catalogue", header(IF_NONE_MATCH, "\"v0\"")));
+        assertThat(response.status(), is(OK));
+        assertThat(response.entity().toString(), is("catalogue"));
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    public void addsTheValidatorsToOrdinaryResponses() throws Exception {
+        Response response = application().addAnnotated(Catalogue.class).handle(Request.get("catalogue"));
+        assertThat(response.header(ETAG).get(), is("\"v1\""));
+        assertThat(Dates.parse(response.header(LAST_MODIFIED).get()), is(MODIFIED));
+    }
+
+    @Test
+    public void onlyAddsTheValidatorsToSuccessfulResponses() throws Exception {
+        Response response = application().addAnnotated(Catalogue.class).handle(Request.get("catalogue/missing"));
+        assertThat(response.status(), is(NOT_FOUND));
+        assertThat(response.headers().contains(ETAG), is(false));
+        assertThat(response.headers().contains(LAST_MODIFIED), is(false));
+    }
+
+    @Test
+    public void tagsTheBodyWithTheVersionReadBeforeItWasRendered() throws Exception {
+        Response response = application().addAnnotated(Catalogue.class).handle(Request.get("catalogue/moving"));
+        assertThat(response.entity().toString(), is("version 0"));
+        assertThat(response.header(ETAG).get(), is("\"0\""));
+    }
+
+    @Test
+    public void matchesAValidatedBindingOnce() throws Exception {
+        Response response = application().add(countExtractions).addAnnotated(Catalogue.class).handle(Request.get("catalogue/counted"));
+        assertThat(response.entity().toString(), is("counted"));
+        assertThat(response.header(ETAG).get(), is("\"v1\""));
+        assertThat(extractions.get(), is(1));
+    }
+
+    @Test
+    public void doesNotMatchAheadOfTheResourceWhenNothingIsValidated() throws Exception {
+        Response response = application().add(countExtractions).addAnnotated(Unvalidated.class).handle(Request.get("unvalidated"));
+        assertThat(response.entity().toString(), is("unvalidated"));
+        assertThat(response.headers().contains(ETAG), is(false));
+        assertThat(extractions.get(), is(1));
+    }
+
+    public static class Extraction {
+    }
+
+    public static class Unvalidated {
+        @GET
+        @Path("unvalidated")
+        public String get(Extraction extraction) {
+            return "unvalidated";
+        }
+    }
+
+    @Path("catalogue")
+    public static class Catalogue {
+        @GET
+        @Path("counted")
+        @ValidatedBy(CatalogueVersion.class)
+        public String counted(Extraction extraction) {
+            return "counted";
+        }
+
+        @GET
+        @Path("missing")
+        @ValidatedBy(CatalogueVersion.class)
+        public Response missing() {
+            return Response.response(NOT_FOUND);
+        }
+
+        @GET
+        @Path("moving")
+        @ValidatedBy(MovingVersion.class)
+        public String moving() {
+            return "version " + invocations.getAndIncrement();
+        }
+
+        @GET
+        @ValidatedBy(CatalogueVersion.class)
+        public String get() {
+            invocations.incrementAndGet();
+            return "catalogue";
+        }
+    }
+
+    public static class MovingVersion implements Validator {
+        @Override
+        public Option<EntityTag> etag(Request request) {
+            return some(EntityTag.strong(String.valueOf(invocations.get())));
+        }
+
+        @Override
+        public Option<Date> lastModified(Request request) {
+            return none(Date.class);
+        }
+    }
+
+    public static class CatalogueVersion implements Validator {
+        @Override
+        public Option<EntityTag> etag(Request request) {
+            return some(EntityTag.strong("v1"));
+        }
+
+        @Override
+        public Option<Date> lastModified(Request request) {
+            return some(MODIFIED);
+        }
+    }
+}
@@ -2,11 +2,17 @@ package com.googlecode.utterlyidle.modules;
 
 import com.googlecode.utterlyidle.*;
 import com.googlecode.utterlyidle.handlers.EtagHandler;
+import com.googlecode.utterlyidle.handlers.EtagPolicy;
 import org.junit.Test;
 
+import static com.googlecode.totallylazy.predicates.Predicates.always;
+import static com.googlecode.utterlyidle.Entities.inputStreamOf;
 import static com.googlecode.utterlyidle.HttpHeaders.*;
+import static com.googlecode.utterlyidle.KnownLengthInputStream.knownLength;
 import static com.googlecode.utterlyidle.Response.ok;
 import static com.googlecode.utterlyidle.Response.seeOther;
+import static com.googlecode.utterlyidle.handlers.EtagHasher.constructors.md5;
+import static com.googlecode.utterlyidle.handlers.EtagPolicy.etagPolicy;
 import static com.googlecode.utterlyidle.handlers.ReturnResponseHandler.returnsResponse;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -14,7 +20,7 @@ import static org.hamcrest.Matchers.is;
 public class EtagHandlerTest {
     @Test
     public void onlyPassesThroughSafeHeaders() throws Exception {
-        HttpHandler handler = new EtagHandler(returnsResponse(Response.ok().entity("abc").header(HttpHeaders.DATE, "passesThrough").header("X-foo", "doesntPassThrough")));
+        HttpHandler handler = new EtagHandler(returnsResponse(Response.ok().entity("abc").header(HttpHeaders.DATE, "passesThrough").header("X-foo", "doesntPassThrough")), md5Policy());
         Response response = handler.handle(Request.get("/", HttpMessage.Builder.header(IF_NONE_MATCH, "\"900150983cd24fb0d6963f7d28e17f72\"")));
 
         assertThat(response.headers().contains("X-foo"), is(false));
@@ -23,14 +29,14 @@ public class EtagHandlerTest {
 
     @Test
     public void calculatesStrongEtagWhichMustBeQuoted() throws Exception {
-        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")));
+        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")), md5Policy());
         Response response = handler.handle(Request.get("/"));
         assertThat(response.header(ETAG).get(), is("\"900150983cd24fb0d6963f7d28e17f72\""));
     }
 
     @Test
     public void setsContentMD5ForGoodMeasure() throws Exception {
-        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")));
+        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")), md5Policy());
         Response response = handler.handle(Request.get("/"));
         assertThat(response.header(Content_MD5).get(), is("kAFQmDzST7DWlj99KOF/cg=="));
     }
@@ -50,9 +56,68 @@ public class EtagHandlerTest {
 
     @Test
     public void returnsNotModifiedIfEtagMatches() throws Exception {
-        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")));
+        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")), md5Policy());
         Response response = handler.handle(Request.get("/", HttpMessage.Builder.header(IF_NONE_MATCH, "\"900150983cd24fb0d6963f7d28e17f72\"")));
         assertThat(response.status(), is(Status.NOT_MODIFIED));
         assertThat(response.entity().toString().length(), is(0));
     }
+
+    @Test
+    public void defaultsToACheapHashWithoutContentMD5() throws Exception {
+        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")));
+        Response response = handler.handle(Request.get("/"));
+        assertThat(response.header(ETAG).get(), is("\"e71fa2190541574b-3\""));
+        assertThat(response.headers().contains(Content_MD5), is(false));
+    }
+
+    @Test
+    public void understandsListsOfWeakAndStrongEtags() throws Exception {
+        HttpHandler handler = new EtagHandler(returnsResponse(ok().entity("abc")));
+        Response response = handler.handle(Request.get("/", HttpMessage.Builder.header(IF_NONE_MATCH, "\"other\", W/\"e71fa2190541574b-3\"")));
+        assertThat(response.status(), is(Status.NOT_MODIFIED));
+        assertThat(response.header(ETAG).get(), is("\"e71fa2190541574b-3\""));
+
+        Response any = handler.handle(Request.get("/", HttpMessage.Builder.header(IF_NONE_MATCH, "*")));
+        assertThat(any.status(), is(Status.NOT_MODIFIED));
+
+        Response other = handler.handle(Request.get("/", HttpMessage.Builder.header(IF_NONE_MATCH, "\"other\", W/\"another\"")));
+        assertThat(other.status(), is(Status.OK));
+    }
+
+    @Test
+    public void usesAnEtagTheResourceSuppliedWithoutRenderingTheBody() throws Exception {
+        StreamingOutput neverWritten = outputStream -> {
+            throw new AssertionError("should not render");
+        };
+        HttpHandler handler = new EtagHandler(returnsResponse(ok().header(ETAG, "W/\"v1\"").entity(neverWritten)));
+        Response response = handler.handle(Request.get("/", HttpMessage.Builder.header(IF_NONE_MATCH, "\"v1\"")));
+        assertThat(response.status(), is(Status.NOT_MODIFIED));
+        assertThat(response.header(ETAG).get(), is("W/\"v1\""));
+    }
+
+    @Test
+    public void onlyTagsStreamedBodiesThePolicyAsksFor() throws Exception {
+        StreamingOutput streamed = outputStream -> outputStream.write("abc".getBytes("UTF-8"));
+        Response untagged = new EtagHandler(returnsResponse(ok().entity(streamed))).handle(Request.get("/"));
+        assertThat(untagged.headers().contains(ETAG), is(false));
+
+        Response tagged = new EtagHandler(returnsResponse(ok().entity(streamed)), etagPolicy().add(always())).handle(Request.get("/"));
+        assertThat(tagged.header(ETAG).get(), is("\"e71fa2190541574b-3\""));
+        assertThat(tagged.entity().toString(), is("abc"));
+    }
+
+    @Test
+    public void keepsTheBodyOfValuesThatCanOnlyBeReadOnce() throws Exception {
+        Response knownLength = new EtagHandler(returnsResponse(ok().entity(knownLength(inputStreamOf("abc"), 3)))).handle(Request.get("/"));
+        assertThat(knownLength.header(ETAG).get(), is("\"e71fa2190541574b-3\""));
+        assertThat(knownLength.entity().toString(), is("abc"));
+
+        Response stream = new EtagHandler(returnsResponse(ok().entity(inputStreamOf("abc"))), etagPolicy().add(always())).handle(Request.get("/"));
+        assertThat(stream.header(ETAG).get(), is("\"e71fa2190541574b-3\""));
+        assertThat(stream.entity().toString(), is("abc"));
+    }
+
+    private static EtagPolicy md5Policy() {
+        return etagPolicy().hasher(md5());
+    }
 }
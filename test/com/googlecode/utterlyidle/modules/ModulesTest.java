@@ -0,0 +1,105 @@
+package com.googlecode.utterlyidle.modules;
+
+import com.googlecode.yadic.Container;
+import com.googlecode.yadic.SimpleContainer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ModulesTest {
+    private final Modules modules = new Modules();
+    private final Container applicationScope = new SimpleContainer();
+
+    {
+        modules.setupApplicationScope(applicationScope);
+        modules.addRequestModule(RequestScopedModule.class);
+    }
+
+    @Test
+    public void activatesTheSameModulesInTheSameOrderForEveryScope() throws Exception {
+        modules.activateApplicationModule(named("first"), applicationScope);
+        modules.activateApplicationModule(named("second"), applicationScope);
+
+        assertThat(activateRequestScope(), is(asList("first", "second")));
+        assertThat(activateRequestScope(), is(asList("first", "second")));
+    }
+
+    @Test
+    public void picksUpModulesAddedAfterAScopeHasBeenActivated() throws Exception {
+        modules.activateApplicationModule(named("first"), applicationScope);
+        assertThat(activateRequestScope(), is(asList("first")));
+
+        modules.activateApplicationModule(named("second"), applicationScope);
+        assertThat(activateRequestScope(), is(asList("first", "second")));
+    }
+
+    @Test
+    public void picksUpModuleClassesDefinedAfterAScopeHasBeenActivated() throws Exception {
+        modules.activateApplicationModule(new Greeting(), applicationScope);
+        assertThat(activateRequestScope(), is(asList("greeting")));
+
+        modules.addRequestModule(GreetingModule.class);
+        assertThat(activateRequestScope(), is(asList("greeting", "hello")));
+    }
+
+    @Test
+    public void activatesDynamicModulesAfreshForEveryScopeInTheirPlace() throws Exception {
+        Dynamic dynamic = new Dynamic();
+        modules.activateApplicationModule(named("first"), applicationScope);
+        modules.activateApplicationModule(dynamic, applicationScope);
+        modules.activateApplicationModule(named("last"), applicationScope);
+
+        assertThat(activateRequestScope(), is(asList("first", "dynamic 1", "last")));
+        assertThat(activateRequestScope(), is(asList("first", "dynamic 2", "last")));
+    }
+
+    private List<String> activateRequestScope() {
+        Container requestScope = new SimpleContainer(applicationScope);
+        requestScope.addInstance(Names.class, new Names());
+        modules.activateRequestModules(requestScope);
+        return requestScope.get(Names.class).values;
+    }
+
+    private static Module named(String name) {
+        return (RequestScopedModule) container -> {
+            container.get(Names.class).values.add(name);
+            return container;
+        };
+    }
+
+    public static class Names {
+        private final List<String> values = new ArrayList<String>();
+    }
+
+    public interface GreetingModule extends Module {
+        void greet(Names names);
+    }
+
+    public static class Greeting implements RequestScopedModule, GreetingModule {
+        @Override
+        public Container addPerRequestObjects(Container container) throws Exception {
+            container.get(Names.class).values.add("greeting");
+            return container;
+        }
+
+        @Override
+        public void greet(Names names) {
+            names.values.add("hello");
+        }
+    }
+
+    public static class Dynamic implements RequestScopedModule, DynamicModule {
+        private int activations;
+
+        @Override
+        public Container addPerRequestObjects(Container container) throws Exception {
+            container.get(Names.class).values.add("dynamic " + ++activations);
+            return container;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.googlecode.utterlyidle.multipart;
+
+import com.googlecode.totallylazy.Strings;
+import com.googlecode.totallylazy.functions.Unary;
+import com.googlecode.utterlyidle.Request;
+import com.googlecode.utterlyidle.annotations.POST;
+import com.googlecode.utterlyidle.annotations.Path;
+import com.googlecode.utterlyidle.modules.ApplicationScopedModule;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.nio.file.Files;
+
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.Strings.bytes;
+import static com.googlecode.utterlyidle.ApplicationBuilder.application;
+import static com.googlecode.utterlyidle.HttpHeaders.CONTENT_TYPE;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.entity;
+import static com.googlecode.utterlyidle.HttpMessage.Builder.header;
+import static com.googlecode.utterlyidle.multipart.MultipartConfiguration.multipartConfiguration;
+import static com.googlecode.utterlyidle.multipart.Parts.parts;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class PartsTest {
+    private static final String BODY = "preamble to ignore\r\n" +
+            "--AaB03x\r\n" +
+            "Content-Disposition: form-data; name=\"field\"\r\n" +
+            "\r\n" +
+            "Hello\r\n" +
+            "--AaB03x \r\n" +
+            "Content-Disposition: form-data; name=\"upload\"; filename=\"a;b.txt\"\r\n" +
+            "Content-Type: application/octet-stream\r\n" +
+            "\r\n" +
+            "line one\r\n-- not a boundary --AaB03\r\nline two\r\n" +
+            "--AaB03x--\r\n" +
+            "epilogue to ignore";
+
+    @Test
+    public void readsEachPartWithItsHeaders() throws Exception {
+        Parts parts = parts(new ByteArrayInputStream(bytes(BODY)), "AaB03x", multipartConfiguration());
+
+        Part field = parts.part("field").get();
+        assertThat(field.value(), is("Hello"));
+        assertThat(field.contentType(), is("text/plain"));
+        assertThat(field.filename().isEmpty(), is(true));
+
+        Part upload = parts.part("upload").get();
+        assertThat(upload.filename().get(), is("a;b.txt"));
+        assertThat(upload.contentType(), is("application/octet-stream"));
+        assertThat(upload.value(), is("line one\r\n-- not a boundary --AaB03\r\nline two"));
+        assertThat(sequence(parts).size(), is(2));
+    }
+
+    @Test
+    public void spillsPartsOverTheThresholdToATemporaryFileDeletedOnClose() throws Exception {
+        File directory = Files.createTempDirectory("parts").toFile();
+        Parts parts = parts(new ByteArrayInputStream(bytes(BODY)), "AaB03x", multipartConfiguration().memoryThreshold(5).temporaryDirectory(directory));
+
+        assertThat(parts.part("field").get().inMemory(), is(true));
+        Part upload = parts.part("upload").get();
+        assertThat(upload.inMemory(), is(false));
+        assertThat(upload.length(), is(45L));
+        assertThat(Strings.toString(upload.inputStream()), is("line one\r\n-- not a boundary --AaB03\r\nline two"));
+        assertThat(directory.list().length, is(1));
+
+        parts.close();
+        assertThat(directory.list().length, is(0));
+        directory.delete();
+    }
+
+    @Test
+    public void handsBodiesOverInSmallPiecesWhateverTheirSize() throws Exception {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100000; i++) large.append("0123456789");
+        String body = "--x\r\nContent-Disposition: form-data; name=\"large\"\r\n\r\n" + large + "\r\n--x--";
+
+        Part part = parts(new ByteArrayInputStream(bytes(body)), "x", multipartConfiguration()).part("large").get();
+
+        assertThat(part.length(), is(1000000L));
+        part.close();
+    }
+
+    @Test
+    public void complainsWhenTheClosingBoundaryIsMissing() throws Exception {
+        try {
+            sequence(parts(new ByteArrayInputStream(bytes("--x\r\n\r\ntruncated")), "x", multipartConfiguration())).size();
+            fail("Should not parse a truncated body");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause() instanceof EOFException, is(true));
+        }
+    }
+
+    @Test
+    public void requestsThatAreNotMultipartHaveNoParts() throws Exception {
+        assertThat(sequence(parts(Request.post("/", entity("a=b")), multipartConfiguration())).isEmpty(), is(true));
+    }
+
+    @Test
+    public void canBeInjectedIntoResources() throws Exception {
+        Request request = Request.post("upload", header(CONTENT_TYPE, "multipart/form-data; boundary=\"AaB03x\""), entity(BODY));
+
+        assertThat(application().addAnnotated(Uploads.class).responseAsString(request), is("field=5, upload=45"));
+    }
+
+    @Test
+    public void deletesSpilledPartsOnceTheRequestIsDone() throws Exception {
+        assertSpilledPartsAreDeleted(entity(BODY));
+    }
+
+    @Test
+    public void deletesSpilledPartsOfAStreamedBodyOnceTheRequestIsDone() throws Exception {
+        assertSpilledPartsAreDeleted(entity(new ByteArrayInputStream(bytes(BODY))));
+    }
+
+    private static void assertSpilledPartsAreDeleted(Unary<Request> entity) throws Exception {
+        File directory = Files.createTempDirectory("parts").toFile();
+        Request request = Request.post("lengths", header(CONTENT_TYPE, "multipart/form-data; boundary=\"AaB03x\""), entity);
+
+        String response = application().
+                add((ApplicationScopedModule) container -> {
+                    container.remove(MultipartConfiguration.class);
+                    return container.addInstance(MultipartConfiguration.class, multipartConfiguration().memoryThreshold(5).temporaryDirectory(directory));
+                }).
+                addAnnotated(Uploads.class).
+                responseAsString(request);
+
+        assertThat(response, is("field=5, upload=45 (1 on disk)"));
+        assertThat(directory.list().length, is(0));
+        directory.delete();
+    }
+
+    public static class Uploads {
+        @POST
+        @Path("upload")
+        public String upload(Parts parts) throws Exception {
+            try {
+                return sequence(parts).map(part -> part.name().get() + "=" + part.length()).toString(", ");
+            } finally {
+                parts.close();
+            }
+        }
+
+        @POST
+        @Path("lengths")
+        public String lengths(Parts parts) throws Exception {
+            String lengths = sequence(parts).map(part -> part.name().get() + "=" + part.length()).toString(", ");
+            return lengths + " (" + sequence(parts).filter(part -> !part.inMemory()).size() + " on disk)";
+        }
+    }
+}